@@ -7,7 +7,7 @@
 
 import React, { useState, useEffect, useMemo } from 'react';
 import { Alert, AppState, AppStateStatus, PermissionsAndroid, Platform, Text, TextInput, View } from 'react-native';
-import { NativeModules } from 'react-native';
+import { NativeEventEmitter } from 'react-native';
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import { HomeScreen } from './src/components/HomeScreen';
 import { OnboardingScreen } from './src/components/OnboardingScreen';
@@ -22,8 +22,7 @@ import { useAuth } from './src/hooks/useAuth';
 import { ScreenType, OnboardingData } from './src/types';
 import { AuthScreen } from './src/components/AuthScreen';
 import { homeStyles } from './src/styles';
-
-const { AlarmModule } = NativeModules;
+import AlarmModule from './src/specs/NativeAlarmModule';
 
 // Enforce Roboto as the default app font on Android so system font changes don't affect UI
 if (Platform.OS === 'android') {
@@ -67,7 +66,7 @@ export default function App() {
   // Check permissions on app start
   useEffect(() => {
     // Ensure notification channel exists before requesting permissions
-    try { AlarmModule.createAlarmChannel(); } catch {}
+    try { AlarmModule?.createAlarmChannel(); } catch {}
     checkPermissions();
     // Load saved user name for header
     (async () => {
@@ -78,16 +77,23 @@ export default function App() {
     })();
   }, []);
 
-  // Consume native completion on foreground and update logs
+  // Drain native completion journal on foreground and update logs
   useEffect(() => {
     const handleAppStateChange = async (state: AppStateStatus) => {
       if (state === 'active') {
         try {
-          const data = await AlarmModule.consumeLastCompletion?.();
-          if (data && typeof data === 'object') {
-            const { dateKey, actualWakeTime } = data as { dateKey?: string; actualWakeTime?: string };
-            const date = dateKey ? new Date(dateKey + 'T00:00:00') : new Date();
-            await markDay(date, 'completed', { actualWakeTime: actualWakeTime ? new Date(actualWakeTime) : new Date(), solvedMath: true });
+          const cursor = Number(await AsyncStorage.getItem('completionCursor')) || 0;
+          const batch = await AlarmModule?.consumeCompletionsSince(cursor);
+          const events = (batch?.events ?? []) as { completedAt: number; utcOffsetMinutes: number }[];
+          for (const event of events) {
+            // Day of completion in the time zone it happened in
+            const local = new Date(event.completedAt + event.utcOffsetMinutes * 60000);
+            const date = new Date(local.getUTCFullYear(), local.getUTCMonth(), local.getUTCDate());
+            await markDay(date, 'completed', { actualWakeTime: new Date(event.completedAt), solvedMath: true });
+          }
+          if (events.length > 0) {
+            // Acknowledged on the next drain, once the logs above are saved
+            await AsyncStorage.setItem('completionCursor', String(batch!.cursor));
             try { await refreshLogs?.(); } catch {}
           }
         } catch (e) {
@@ -96,9 +102,15 @@ export default function App() {
       }
     };
     const sub = AppState.addEventListener('change', handleAppStateChange);
+    // Native pushes a completion as soon as it is journaled; no need to wait for a foreground
+    const emitter = AlarmModule ? new NativeEventEmitter(AlarmModule) : null;
+    const completedSub = emitter?.addListener('NoozeMathCompleted', () => handleAppStateChange('active'));
     // Run once on mount in case app is already active
     handleAppStateChange('active');
-    return () => sub.remove();
+    return () => {
+      sub.remove();
+      completedSub?.remove();
+    };
   }, [markDay]);
 
   const checkPermissions = async () => {
@@ -126,21 +138,21 @@ export default function App() {
             'This permission is necessary for alarms to ring and display over your lock screen. Without it, the alarm UI may not appear and you could miss alarms. Please enable notifications for Nooze.',
             [
               { text: 'Later', style: 'cancel' },
-              { text: 'Open settings', onPress: async () => { try { await AlarmModule.openAppNotificationSettings(); } catch {} } },
+              { text: 'Open settings', onPress: async () => { try { await AlarmModule?.openAppNotificationSettings(); } catch {} } },
             ]
           );
         }
 
         // Android 12+ Exact Alarms capability prompt
         try {
-          const canExact = await AlarmModule.canScheduleExactAlarms();
+          const canExact = AlarmModule?.canScheduleExactAlarms() ?? true;
           if (!canExact) {
             Alert.alert(
               'Allow exact alarms (required)',
               'This permission is necessary so your alarm fires at the exact minute every day, even in battery saver/Doze. Without it, Android may delay alarms.',
               [
                 { text: 'Not now', style: 'cancel' },
-                { text: 'Open settings', onPress: async () => { try { await AlarmModule.openExactAlarmSettings(); } catch {} } },
+                { text: 'Open settings', onPress: async () => { try { await AlarmModule?.openExactAlarmSettings(); } catch {} } },
               ]
             );
           }
@@ -149,7 +161,7 @@ export default function App() {
         }
 
         // Post a test notification to surface channel in settings UIs
-        try { await AlarmModule.postTestNotification(); } catch {}
+        try { await AlarmModule?.postTestNotification(); } catch {}
       } catch (err) {
         console.warn(err);
       }
@@ -236,14 +248,14 @@ export default function App() {
   const promptCriticalAccess = async () => {
     try {
       // 1) Notifications settings (ensures high-importance channel visible)
-      try { await AlarmModule.openAppNotificationSettings(); } catch {}
+      try { await AlarmModule?.openAppNotificationSettings(); } catch {}
       // 2) Exact alarms (Android 12+)
       try {
-        const canExact = await AlarmModule.canScheduleExactAlarms();
-        if (!canExact) { await AlarmModule.openExactAlarmSettings(); }
+        const canExact = AlarmModule?.canScheduleExactAlarms() ?? true;
+        if (!canExact) { await AlarmModule?.openExactAlarmSettings(); }
       } catch {}
       // 3) Battery optimization exclusion (optional)
-      try { await AlarmModule.requestIgnoreBatteryOptimizations(); } catch {}
+      try { await AlarmModule?.requestIgnoreBatteryOptimizations(); } catch {}
     } catch (e) {
       console.warn('Permission prompts failed', e);
     }
@@ -362,28 +374,14 @@ export default function App() {
         alarmTime.setDate(alarmTime.getDate() + 1);
       }
 
-      const alarmData = {
-        triggerTime: alarmTime.getTime(),
-        alarmId: 1001,
-        hourOfDay: alarmTime.getHours(),
-        minuteOfHour: alarmTime.getMinutes(),
-      };
-
       // Prevent duplicate notifications: clear any existing alarms first
-      try {
-        await AlarmModule.clearAllAlarms();
-      } catch (e) {
-        // ignore if not implemented on platform
-      }
       try {
         await clearAllAlarms();
       } catch (e) {
         // ignore storage clear errors
       }
 
-      await AlarmModule.scheduleAlarm(alarmData);
-      
-      // Add to local storage
+      // Saving the list syncs it into the native schedule; nothing else writes native alarms
       const newAlarm = await addAlarm({
         time: alarmTime,
         repeatDays: repeatDaysOverride || repeatDays,
@@ -406,11 +404,11 @@ export default function App() {
 
   const handleClearAllAlarms = async () => {
     try {
-      // Clear native alarms
-      await AlarmModule.clearAllAlarms();
-      
-      // Clear local alarms
+      // Clears local alarms; the sync that follows drops them natively
       await clearAllAlarms();
+
+      // Stops a ringing alarm and resets the active flag; the table is already empty to match
+      await AlarmModule?.clearAllAlarms();
       
       Alert.alert('Success', 'All alarms cleared');
     } catch (error) {
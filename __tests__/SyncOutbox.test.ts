@@ -0,0 +1,74 @@
+/**
+ * @format
+ */
+
+import SyncOutbox, { InMemorySink, MemoryOutboxStore } from '../src/services/SyncOutbox';
+
+const setup = () => {
+  const store = new MemoryOutboxStore();
+  return { store, outbox: new SyncOutbox(store), sink: new InMemorySink() };
+};
+
+test('repeated edits of one entity are pushed once with the latest value', async () => {
+  const { store, outbox, sink } = setup();
+  for (let i = 0; i < 500; i++) {
+    await outbox.record({ 'challengeLogs.2026-10-17': { status: i % 2 ? 'completed' : 'missed', i } });
+  }
+  await outbox.record({ alarms: [{ id: '1' }] });
+  expect(store.size()).toBe(2);
+
+  expect(await outbox.drain(sink)).toBe(2);
+  expect(sink.document['challengeLogs.2026-10-17']).toEqual({ status: 'completed', i: 499 });
+  expect(sink.document.alarms).toEqual([{ id: '1' }]);
+  expect(store.size()).toBe(0);
+});
+
+test('drains in bounded batches, oldest first', async () => {
+  const { outbox, sink } = setup();
+  for (let day = 1; day <= 25; day++) {
+    await outbox.record({ [`challengeLogs.day-${day}`]: { day } });
+  }
+  expect(await outbox.drain(sink, 10)).toBe(25);
+  expect(sink.batches.map(batch => batch.length)).toEqual([10, 10, 5]);
+  expect(sink.batches[0][0].key).toBe('challengeLogs.day-1');
+});
+
+test('a failed push keeps entries queued for the next drain', async () => {
+  const { store, outbox, sink } = setup();
+  await outbox.record({ currentChallenge: { id: 'a' }, onboardingData: { motivation: 'x' } });
+  sink.failNext = 1;
+  await expect(outbox.drain(sink)).rejects.toThrow('sink unavailable');
+  expect(store.size()).toBe(2);
+
+  expect(await outbox.drain(sink)).toBe(2);
+  expect(sink.document.currentChallenge).toEqual({ id: 'a' });
+});
+
+test('an edit made while its entity is in flight is not acknowledged away', async () => {
+  const { store, outbox } = setup();
+  await outbox.record({ alarms: ['old'] });
+  const slowSink = new InMemorySink();
+  const push = slowSink.push.bind(slowSink);
+  let edited = false;
+  slowSink.push = async entries => {
+    if (!edited) {
+      edited = true;
+      await outbox.record({ alarms: ['new'] });
+    }
+    await push(entries);
+  };
+
+  // The first ack misses the newer version, so the same drain pushes it again
+  expect(await outbox.drain(slowSink, 1)).toBe(2);
+  expect(slowSink.document.alarms).toEqual(['new']);
+  expect(store.size()).toBe(0);
+});
+
+test('null deletes the field', async () => {
+  const { outbox, sink } = setup();
+  await outbox.record({ onboardingData: { motivation: 'x' } });
+  await outbox.drain(sink);
+  await outbox.record({ onboardingData: null });
+  await outbox.drain(sink);
+  expect('onboardingData' in sink.document).toBe(false);
+});
@@ -1,114 +1,48 @@
 package com.nooze;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import android.content.Context;
-import android.app.AlarmManager;
-import android.app.PendingIntent;
-import android.content.Intent;
-import android.os.Build;
 import android.util.Log;
-import java.util.Calendar;
 
-@Entity(tableName = "alarm_table")
-public class Alarm {
+@Entity(tableName = "alarm_table", indices = {@Index(value = {"started", "nextTriggerAt"})})
+public class Alarm implements AlarmSchedule.Entry {
     @PrimaryKey(autoGenerate = true)
     private int alarmId;
     private int hour, minute;
     private boolean started;
     private String title;
     private boolean recurring;
-    private boolean monday, tuesday, wednesday, thursday, friday, saturday, sunday;
+    // NextTriggerCalculator.MONDAY..SUNDAY bits
+    private int daysMask;
+    // EscalationProfile spec; null rings with EscalationProfile.DEFAULT_SPEC
+    private String escalation;
+    // Epoch millis a one-off rings at; 0 rings at the next hour:minute
+    @ColumnInfo(defaultValue = "0")
+    private long fireAt;
+    // Epoch millis of the queued trigger, kept by AlarmDispatcher; stale while not started
+    @ColumnInfo(defaultValue = "0")
+    private long nextTriggerAt;
 
-    public Alarm(int hour, int minute, String title, boolean started, boolean recurring,
-                 boolean monday, boolean tuesday, boolean wednesday, boolean thursday,
-                 boolean friday, boolean saturday, boolean sunday) {
+    public Alarm(int hour, int minute, String title, boolean started, boolean recurring, int daysMask) {
         this.hour = hour;
         this.minute = minute;
         this.title = title;
         this.started = started;
         this.recurring = recurring;
-        this.monday = monday;
-        this.tuesday = tuesday;
-        this.wednesday = wednesday;
-        this.thursday = thursday;
-        this.friday = friday;
-        this.saturday = saturday;
-        this.sunday = sunday;
+        this.daysMask = daysMask;
     }
 
+    // Registration goes through AlarmDispatcher, which keeps a single system alarm
+    // for the earliest deadline. Touches Room, so call off the main thread.
     public void schedule(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, AlarmBroadcastReceiver.class);
-        intent.putExtra("ALARM_ID", alarmId);
-        intent.putExtra("TITLE", title);
-        intent.putExtra("RECURRING", recurring);
-        intent.putExtra("MONDAY", monday);
-        intent.putExtra("TUESDAY", tuesday);
-        intent.putExtra("WEDNESDAY", wednesday);
-        intent.putExtra("THURSDAY", thursday);
-        intent.putExtra("FRIDAY", friday);
-        intent.putExtra("SATURDAY", saturday);
-        intent.putExtra("SUNDAY", sunday);
-
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
-            context, 
-            alarmId, 
-            intent, 
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(System.currentTimeMillis());
-        calendar.set(Calendar.HOUR_OF_DAY, hour);
-        calendar.set(Calendar.MINUTE, minute);
-        calendar.set(Calendar.SECOND, 0);
-
-        // If alarm time has already passed today, schedule for tomorrow
-        if (calendar.getTimeInMillis() <= System.currentTimeMillis()) {
-            calendar.set(Calendar.DAY_OF_YEAR, calendar.get(Calendar.DAY_OF_YEAR) + 1);
-        }
-
-        long triggerTime = calendar.getTimeInMillis();
-
-        // Use appropriate alarm method based on Android version
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            alarmManager.setExactAndAllowWhileIdle(
-                AlarmManager.RTC_WAKEUP,
-                triggerTime,
-                pendingIntent
-            );
-        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            alarmManager.setAlarmClock(
-                new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent),
-                pendingIntent
-            );
-        } else {
-            alarmManager.setExact(
-                AlarmManager.RTC_WAKEUP,
-                triggerTime,
-                pendingIntent
-            );
-        }
-
-        Log.d("Alarm", "Scheduled alarm " + alarmId + " for " + calendar.getTime());
+        AlarmDispatcher.getInstance(context).schedule(this);
     }
 
     public void cancelAlarm(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, AlarmBroadcastReceiver.class);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
-            context, 
-            alarmId, 
-            intent, 
-            PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
-        );
-        
-        if (pendingIntent != null) {
-            alarmManager.cancel(pendingIntent);
-            pendingIntent.cancel();
-        }
-        
+        AlarmDispatcher.getInstance(context).cancel(alarmId);
         Log.d("Alarm", "Cancelled alarm " + alarmId);
     }
 
@@ -125,18 +59,21 @@ public class Alarm {
     public void setTitle(String title) { this.title = title; }
     public boolean isRecurring() { return recurring; }
     public void setRecurring(boolean recurring) { this.recurring = recurring; }
-    public boolean isMonday() { return monday; }
-    public void setMonday(boolean monday) { this.monday = monday; }
-    public boolean isTuesday() { return tuesday; }
-    public void setTuesday(boolean tuesday) { this.tuesday = tuesday; }
-    public boolean isWednesday() { return wednesday; }
-    public void setWednesday(boolean wednesday) { this.wednesday = wednesday; }
-    public boolean isThursday() { return thursday; }
-    public void setThursday(boolean thursday) { this.thursday = thursday; }
-    public boolean isFriday() { return friday; }
-    public void setFriday(boolean friday) { this.friday = friday; }
-    public boolean isSaturday() { return saturday; }
-    public void setSaturday(boolean saturday) { this.saturday = saturday; }
-    public boolean isSunday() { return sunday; }
-    public void setSunday(boolean sunday) { this.sunday = sunday; }
+    public int getDaysMask() { return daysMask; }
+    public void setDaysMask(int daysMask) { this.daysMask = daysMask; }
+    public boolean isActiveOn(int dayBit) { return (daysMask & dayBit) != 0; }
+    public String getEscalation() { return escalation; }
+    public void setEscalation(String escalation) { this.escalation = escalation; }
+    public long getFireAt() { return fireAt; }
+    public void setFireAt(long fireAt) { this.fireAt = fireAt; }
+    public long getNextTriggerAt() { return nextTriggerAt; }
+    public void setNextTriggerAt(long nextTriggerAt) { this.nextTriggerAt = nextTriggerAt; }
+
+    // True when every user-set field other than the id matches; nextTriggerAt is derived
+    public boolean sameAs(Alarm other) {
+        return hour == other.hour && minute == other.minute && started == other.started
+            && recurring == other.recurring && daysMask == other.daysMask && fireAt == other.fireAt
+            && java.util.Objects.equals(title, other.title)
+            && java.util.Objects.equals(escalation, other.escalation);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,298 @@
+package com.nooze;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.media.RingtoneManager;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays the alarm sound from a PCM cache decoded ahead of time.
+ *
+ * prewarm() decodes the user's alarm ringtone (or the bundled alarm_sound) to
+ * 16-bit PCM in filesDir whenever an alarm is armed, so that when the service
+ * starts, start() only has to open a file and feed an AudioTrack, with no URI
+ * resolution or codec setup on the wake path. start() returns false when no
+ * usable cache exists, and AlarmService falls back to MediaPlayer.
+ */
+public class AlarmAudioEngine {
+    private static final String TAG = "AlarmAudioEngine";
+    private static final String CACHE_FILE = "alarm_sound.pcm";
+    private static final int CACHE_MAGIC = 0x4E5A5043; // "NZPC"
+    // One loop of the ringtone is enough; longer sources are truncated
+    private static final int MAX_CACHED_SECONDS = 60;
+    private static final int CHUNK_BYTES = 16 * 1024;
+    private static final long CODEC_TIMEOUT_US = 10_000L;
+
+    private static final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor();
+
+    private volatile boolean playing;
+    private AudioTrack audioTrack;
+    private Thread streamThread;
+
+    /** Refreshes the PCM cache in the background if the alarm sound changed or was never decoded. */
+    public static void prewarm(Context context) {
+        final Context appContext = context.getApplicationContext();
+        decodeExecutor.execute(() -> {
+            try {
+                Uri source = resolveSource(appContext);
+                File cache = new File(appContext.getFilesDir(), CACHE_FILE);
+                if (source.toString().equals(readSourceKey(cache))) {
+                    return;
+                }
+                long startedAt = android.os.SystemClock.elapsedRealtime();
+                decodeToCache(appContext, source, cache);
+                Log.d(TAG, "Decoded " + source + " to PCM cache in "
+                    + (android.os.SystemClock.elapsedRealtime() - startedAt) + "ms");
+            } catch (Exception e) {
+                Log.w(TAG, "Alarm sound prewarm failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Starts looping playback from the cache; false means the caller should use MediaPlayer. */
+    public boolean start(Context context) {
+        File cache = new File(context.getFilesDir(), CACHE_FILE);
+        RandomAccessFile input = null;
+        try {
+            input = new RandomAccessFile(cache, "r");
+            if (input.readInt() != CACHE_MAGIC) {
+                input.close();
+                return false;
+            }
+            int sampleRate = input.readInt();
+            int channelCount = input.readInt();
+            input.readUTF();
+            final long dataStart = input.getFilePointer();
+            // Caches written before multichannel sources were rejected may hold more than stereo
+            if (input.length() <= dataStart || channelCount < 1 || channelCount > 2) {
+                input.close();
+                return false;
+            }
+
+            int channelMask = channelCount == 1 ? AudioFormat.CHANNEL_OUT_MONO : AudioFormat.CHANNEL_OUT_STEREO;
+            int minBuffer = AudioTrack.getMinBufferSize(sampleRate, channelMask, AudioFormat.ENCODING_PCM_16BIT);
+            audioTrack = new AudioTrack.Builder()
+                .setAudioAttributes(new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_ALARM)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .build())
+                .setAudioFormat(new AudioFormat.Builder()
+                    .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                    .setSampleRate(sampleRate)
+                    .setChannelMask(channelMask)
+                    .build())
+                .setTransferMode(AudioTrack.MODE_STREAM)
+                .setBufferSizeInBytes(Math.max(minBuffer * 2, CHUNK_BYTES))
+                .build();
+            audioTrack.setVolume(1.0f);
+
+            // Prime the track on this thread so sound starts without waiting for the streamer
+            byte[] chunk = new byte[CHUNK_BYTES];
+            int primed = input.read(chunk);
+            audioTrack.write(chunk, 0, Math.max(primed, 0));
+            audioTrack.play();
+            playing = true;
+
+            final RandomAccessFile source = input;
+            final AudioTrack track = audioTrack;
+            streamThread = new Thread(() -> stream(source, track, dataStart, chunk), "AlarmAudioStream");
+            streamThread.start();
+            return true;
+        } catch (Exception e) {
+            Log.w(TAG, "PCM playback unavailable, falling back: " + e.getMessage());
+            if (input != null) {
+                try { input.close(); } catch (IOException ignored) {}
+            }
+            release();
+            return false;
+        }
+    }
+
+    public void stop() {
+        playing = false;
+        if (audioTrack != null) {
+            try {
+                // Unblocks a pending write() in the streaming thread
+                audioTrack.pause();
+                audioTrack.flush();
+            } catch (IllegalStateException ignored) {}
+        }
+        if (streamThread != null) {
+            try {
+                streamThread.join(200);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            streamThread = null;
+        }
+        release();
+    }
+
+    /** Sets playback volume in 0..1; ignored when nothing is playing. */
+    public void setVolume(float volume) {
+        AudioTrack track = audioTrack;
+        if (track != null) {
+            try {
+                track.setVolume(volume);
+            } catch (IllegalStateException ignored) {}
+        }
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    private void stream(RandomAccessFile input, AudioTrack track, long dataStart, byte[] chunk) {
+        try {
+            while (playing) {
+                int read = input.read(chunk);
+                if (read <= 0) {
+                    input.seek(dataStart);
+                    continue;
+                }
+                if (track.write(chunk, 0, read) < 0) break;
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "PCM streaming stopped: " + e.getMessage());
+        } finally {
+            try { input.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private void release() {
+        if (audioTrack != null) {
+            audioTrack.release();
+            audioTrack = null;
+        }
+    }
+
+    private static Uri resolveSource(Context context) {
+        Uri uri = RingtoneManager.getActualDefaultRingtoneUri(context, RingtoneManager.TYPE_ALARM);
+        if (uri != null) return uri;
+        return Uri.parse("android.resource://" + context.getPackageName() + "/" + R.raw.alarm_sound);
+    }
+
+    private static String readSourceKey(File cache) {
+        if (!cache.exists()) return null;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(cache))) {
+            if (in.readInt() != CACHE_MAGIC) return null;
+            in.readInt();
+            in.readInt();
+            return in.readUTF();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void decodeToCache(Context context, Uri source, File cache) throws IOException {
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+        File partial = new File(cache.getPath() + ".tmp");
+        try {
+            extractor.setDataSource(context, source, null);
+            MediaFormat format = null;
+            for (int i = 0; i < extractor.getTrackCount(); i++) {
+                MediaFormat candidate = extractor.getTrackFormat(i);
+                String mime = candidate.getString(MediaFormat.KEY_MIME);
+                if (mime != null && mime.startsWith("audio/")) {
+                    extractor.selectTrack(i);
+                    format = candidate;
+                    break;
+                }
+            }
+            if (format == null) throw new IOException("No audio track in " + source);
+
+            int sampleRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            int channelCount = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+            // AudioTrack is opened as mono or stereo; anything wider is left to MediaPlayer
+            if (channelCount > 2) throw new IOException("Unsupported channel count " + channelCount + " in " + source);
+            codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+            codec.configure(format, null, null, 0);
+            codec.start();
+
+            // Decode into memory first: the header needs the output format, which may change mid-stream
+            java.io.ByteArrayOutputStream pcm = new java.io.ByteArrayOutputStream();
+            long maxBytes = (long) MAX_CACHED_SECONDS * sampleRate * channelCount * 2;
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            byte[] copy = new byte[CHUNK_BYTES];
+            boolean inputDone = false;
+            boolean outputDone = false;
+            while (!outputDone && pcm.size() < maxBytes) {
+                if (!inputDone) {
+                    int inputIndex = codec.dequeueInputBuffer(CODEC_TIMEOUT_US);
+                    if (inputIndex >= 0) {
+                        ByteBuffer inputBuffer = codec.getInputBuffer(inputIndex);
+                        int size = extractor.readSampleData(inputBuffer, 0);
+                        if (size < 0) {
+                            codec.queueInputBuffer(inputIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            codec.queueInputBuffer(inputIndex, 0, size, extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+                int outputIndex = codec.dequeueOutputBuffer(info, CODEC_TIMEOUT_US);
+                if (outputIndex >= 0) {
+                    ByteBuffer outputBuffer = codec.getOutputBuffer(outputIndex);
+                    outputBuffer.position(info.offset);
+                    outputBuffer.limit(info.offset + info.size);
+                    while (outputBuffer.hasRemaining()) {
+                        int n = Math.min(copy.length, outputBuffer.remaining());
+                        outputBuffer.get(copy, 0, n);
+                        pcm.write(copy, 0, n);
+                    }
+                    codec.releaseOutputBuffer(outputIndex, false);
+                    outputDone = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                } else if (outputIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outputFormat = codec.getOutputFormat();
+                    sampleRate = outputFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                    channelCount = outputFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                    if (channelCount > 2) {
+                        throw new IOException("Unsupported channel count " + channelCount + " from decoder");
+                    }
+                    if (outputFormat.containsKey(MediaFormat.KEY_PCM_ENCODING)
+                        && outputFormat.getInteger(MediaFormat.KEY_PCM_ENCODING) != AudioFormat.ENCODING_PCM_16BIT) {
+                        throw new IOException("Unsupported PCM encoding from decoder");
+                    }
+                }
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(partial)))) {
+                out.writeInt(CACHE_MAGIC);
+                out.writeInt(sampleRate);
+                out.writeInt(channelCount);
+                out.writeUTF(source.toString());
+                pcm.writeTo(out);
+            }
+            if (!partial.renameTo(cache)) {
+                throw new IOException("Could not replace PCM cache");
+            }
+        } finally {
+            if (codec != null) {
+                try { codec.stop(); } catch (IllegalStateException ignored) {}
+                codec.release();
+            }
+            extractor.release();
+            partial.delete();
+        }
+    }
+}
@@ -4,24 +4,75 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
+import android.os.PowerManager;
 import android.util.Log;
-import java.util.Calendar;
-import java.util.List;
 
+/**
+ * Starts the ringing service and returns; recording the firing and advancing and
+ * re-arming the dispatcher happen on its worker thread under goAsync() and a bounded partial wakelock,
+ * so bookkeeping never delays the ring. Each step's duration is kept in
+ * STEP_TIMINGS and exposed through AlarmModule.getExecutorStats().
+ */
 public class AlarmBroadcastReceiver extends BroadcastReceiver {
     private static final String TAG = "AlarmBroadcastReceiver";
+    private static final String WAKELOCK_TAG = "Nooze:AlarmArm";
+    // Well under the ~10s receiver budget; arming normally takes a few millis
+    private static final long WAKELOCK_TIMEOUT_MS = 8_000L;
+
+    public static final CallTimings STEP_TIMINGS = new CallTimings();
 
     @Override
     public void onReceive(Context context, Intent intent) {
         if (intent.getAction() == null || !intent.getAction().equals(Intent.ACTION_BOOT_COMPLETED)) {
+            AlarmDispatcher dispatcher = AlarmDispatcher.getInstance(context);
+            long receivedAt = dispatcher.getClock().currentTimeMillis();
+            long stepStart = System.nanoTime();
             Log.d(TAG, "Alarm received - starting alarm service");
             startAlarmService(context, intent);
-            // Immediately queue tomorrow's alarm to ensure daily continuity even if math isn't completed
-            try {
-                scheduleNextDailyAlarm(context);
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to schedule next daily alarm on trigger: " + e.getMessage());
-            }
+            STEP_TIMINGS.record("startService", 0, System.nanoTime() - stepStart);
+            final long triggerAt = intent.getLongExtra("TRIGGER_AT", receivedAt);
+
+            // Record the firing, advance the dispatcher past it and arm the next deadline off the
+            // main thread: on a cold process the log mapping and state migration are disk work
+            final int alarmId = intent.getIntExtra("ALARM_ID", -1);
+            final PendingResult result = goAsync();
+            final PowerManager.WakeLock wakeLock = acquireWakeLock(context);
+            final long enqueuedAt = System.nanoTime();
+            dispatcher.runAsync(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    AlarmLatencyLog.recordFiring(context.getFilesDir(), triggerAt, receivedAt);
+                    NoozeState.getInstance(context).setLastFiredTriggerAt(triggerAt);
+                    STEP_TIMINGS.record("latencyLog", startedAt - enqueuedAt, System.nanoTime() - startedAt);
+                    dispatcher.onFired(alarmId, triggerAt);
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to arm next alarm on trigger: " + e.getMessage());
+                } finally {
+                    long finishedAt = System.nanoTime();
+                    STEP_TIMINGS.record("armNext", startedAt - enqueuedAt, finishedAt - startedAt);
+                    Log.d(TAG, "Armed next alarm: queued " + (startedAt - enqueuedAt) / 1_000_000
+                        + "ms, ran " + (finishedAt - startedAt) / 1_000_000 + "ms");
+                    if (wakeLock != null && wakeLock.isHeld()) {
+                        wakeLock.release();
+                    }
+                    result.finish();
+                }
+            });
+            STEP_TIMINGS.record("onReceive", 0, System.nanoTime() - stepStart);
+        }
+    }
+
+    private PowerManager.WakeLock acquireWakeLock(Context context) {
+        try {
+            PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+            PowerManager.WakeLock wakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, WAKELOCK_TAG);
+            wakeLock.setReferenceCounted(false);
+            // Timed so a stuck database call can never keep the CPU awake
+            wakeLock.acquire(WAKELOCK_TIMEOUT_MS);
+            return wakeLock;
+        } catch (Exception e) {
+            Log.w(TAG, "Could not acquire wakelock: " + e.getMessage());
+            return null;
         }
     }
 
@@ -30,13 +81,8 @@ public class AlarmBroadcastReceiver extends BroadcastReceiver {
         intentService.putExtra("ALARM_ID", intent.getIntExtra("ALARM_ID", -1));
         intentService.putExtra("TITLE", intent.getStringExtra("TITLE"));
         intentService.putExtra("RECURRING", intent.getBooleanExtra("RECURRING", false));
-        intentService.putExtra("MONDAY", intent.getBooleanExtra("MONDAY", false));
-        intentService.putExtra("TUESDAY", intent.getBooleanExtra("TUESDAY", false));
-        intentService.putExtra("WEDNESDAY", intent.getBooleanExtra("WEDNESDAY", false));
-        intentService.putExtra("THURSDAY", intent.getBooleanExtra("THURSDAY", false));
-        intentService.putExtra("FRIDAY", intent.getBooleanExtra("FRIDAY", false));
-        intentService.putExtra("SATURDAY", intent.getBooleanExtra("SATURDAY", false));
-        intentService.putExtra("SUNDAY", intent.getBooleanExtra("SUNDAY", false));
+        intentService.putExtra("DAYS_MASK", intent.getIntExtra("DAYS_MASK", 0));
+        intentService.putExtra("ESCALATION", intent.getStringExtra("ESCALATION"));
 
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             context.startForegroundService(intentService);
@@ -44,46 +90,4 @@ public class AlarmBroadcastReceiver extends BroadcastReceiver {
             context.startService(intentService);
         }
     }
-
-    private void scheduleNextDailyAlarm(Context context) {
-        android.content.SharedPreferences prefs = context.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-        int hour = prefs.getInt("dailyWakeHour", -1);
-        int minute = prefs.getInt("dailyWakeMinute", -1);
-        if (hour < 0 || minute < 0) {
-            Log.d(TAG, "No persisted daily time; skip auto-queue");
-            return;
-        }
-
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.set(java.util.Calendar.HOUR_OF_DAY, hour);
-        cal.set(java.util.Calendar.MINUTE, minute);
-        cal.set(java.util.Calendar.SECOND, 0);
-        cal.set(java.util.Calendar.MILLISECOND, 0);
-        // Always move to next day because we are executing at today's trigger time
-        cal.add(java.util.Calendar.DAY_OF_YEAR, 1);
-        long triggerTime = cal.getTimeInMillis();
-
-        int alarmId = prefs.getInt("lastAlarmId", 1001);
-        android.content.Intent nextIntent = new android.content.Intent(context, AlarmBroadcastReceiver.class);
-        nextIntent.putExtra("ALARM_ID", alarmId);
-        nextIntent.putExtra("TITLE", "Alarm " + alarmId);
-        nextIntent.putExtra("RECURRING", false);
-
-        int flags = android.app.PendingIntent.FLAG_UPDATE_CURRENT | android.app.PendingIntent.FLAG_IMMUTABLE;
-        android.app.PendingIntent pi = android.app.PendingIntent.getBroadcast(context, alarmId, nextIntent, flags);
-
-        android.app.AlarmManager am = (android.app.AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-            am.setAlarmClock(new android.app.AlarmManager.AlarmClockInfo(triggerTime, pi), pi);
-        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            am.setExactAndAllowWhileIdle(android.app.AlarmManager.RTC_WAKEUP, triggerTime, pi);
-        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            am.setAlarmClock(new android.app.AlarmManager.AlarmClockInfo(triggerTime, pi), pi);
-        } else {
-            am.setExact(android.app.AlarmManager.RTC_WAKEUP, triggerTime, pi);
-        }
-
-        prefs.edit().putLong("lastTriggerTime", triggerTime).apply();
-        Log.d(TAG, "Auto-queued next daily alarm for: " + new java.util.Date(triggerTime));
-    }
-} 
\ No newline at end of file
+}
@@ -4,7 +4,9 @@ import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 import java.util.List;
 
@@ -19,9 +21,81 @@ public interface AlarmDao {
     @Delete
     void delete(Alarm alarm);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(Alarm alarm);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<Alarm> alarms);
+
+    @Update
+    void updateAll(List<Alarm> alarms);
+
+    @Query("DELETE FROM alarm_table WHERE alarmId IN (:alarmIds)")
+    void deleteByIds(List<Integer> alarmIds);
+
+    // One coalesced AlarmRepository flush, committed as a single transaction. Inserts replace, so an
+    // id that still exists (a delete and re-insert in one window) cannot abort the whole batch.
+    @Transaction
+    default void applyBatch(List<Alarm> inserts, List<Alarm> updates, List<Integer> deletes) {
+        if (!deletes.isEmpty()) deleteByIds(deletes);
+        if (!updates.isEmpty()) updateAll(updates);
+        if (!inserts.isEmpty()) upsertAll(inserts);
+    }
+
+    @Query("SELECT * FROM alarm_table WHERE alarmId = :alarmId")
+    Alarm getById(int alarmId);
+
+    @Query("UPDATE alarm_table SET started = :started WHERE alarmId = :alarmId")
+    void setStarted(int alarmId, boolean started);
+
+    @Query("UPDATE alarm_table SET started = :started WHERE alarmId IN (:alarmIds)")
+    void setStartedAll(List<Integer> alarmIds, boolean started);
+
+    @Query("UPDATE alarm_table SET nextTriggerAt = :triggerAt WHERE alarmId = :alarmId")
+    void setNextTriggerAt(int alarmId, long triggerAt);
+
+    // Writes the trigger each alarm was last queued at, in one transaction
+    @Transaction
+    default void updateNextTriggers(List<Alarm> alarms) {
+        for (Alarm alarm : alarms) {
+            setNextTriggerAt(alarm.getAlarmId(), alarm.getNextTriggerAt());
+        }
+    }
+
+    // After a firing: recurring alarms move to their next trigger, one-offs stop
+    @Transaction
+    default void recordFired(List<Alarm> fired) {
+        for (Alarm alarm : fired) {
+            if (alarm.isRecurring()) {
+                setNextTriggerAt(alarm.getAlarmId(), alarm.getNextTriggerAt());
+            } else {
+                setStarted(alarm.getAlarmId(), false);
+            }
+        }
+    }
+
+    @Query("DELETE FROM alarm_table")
+    void deleteAll();
+
     @Query("SELECT * FROM alarm_table ORDER BY hour ASC, minute ASC")
     LiveData<List<Alarm>> getAllAlarms();
 
+    @Query("SELECT * FROM alarm_table")
+    List<Alarm> getAll();
+
     @Query("SELECT * FROM alarm_table WHERE started = 1")
     List<Alarm> getStartedAlarms();
+
+    // Served by the (started, nextTriggerAt) index: the earliest limit started alarms
+    @Query("SELECT * FROM alarm_table WHERE started = 1 ORDER BY nextTriggerAt ASC LIMIT :limit")
+    List<Alarm> getNextDue(int limit);
+
+    // Started alarms whose next trigger falls in [fromMillis, toMillis), earliest first
+    @Query("SELECT * FROM alarm_table WHERE started = 1 AND nextTriggerAt >= :fromMillis "
+        + "AND nextTriggerAt < :toMillis ORDER BY nextTriggerAt ASC")
+    List<Alarm> getDueBetween(long fromMillis, long toMillis);
+
+    // dayBit is one of NextTriggerCalculator.MONDAY..SUNDAY; one-off alarms match any day
+    @Query("SELECT * FROM alarm_table WHERE started = 1 AND (recurring = 0 OR (daysMask & :dayBit) != 0)")
+    List<Alarm> getStartedAlarmsForDay(int dayBit);
 } 
\ No newline at end of file
@@ -1,14 +1,103 @@
 package com.nooze;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 import android.content.Context;
 
-@Database(entities = {Alarm.class}, version = 1, exportSchema = false)
+@Database(entities = {Alarm.class, CompletionEvent.class, ChallengeLogEntry.class, ChallengeStats.class, OutboxEntry.class}, version = 8, exportSchema = false)
 public abstract class AlarmDatabase extends RoomDatabase {
     private static AlarmDatabase instance;
     public abstract AlarmDao alarmDao();
+    public abstract CompletionDao completionDao();
+    public abstract ChallengeLogDao challengeLogDao();
+    public abstract OutboxDao outboxDao();
+
+    // v2: the seven weekday booleans are packed into a single daysMask int (bit 0 = Monday)
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `alarm_table_new` ("
+                + "`alarmId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`hour` INTEGER NOT NULL, `minute` INTEGER NOT NULL, "
+                + "`started` INTEGER NOT NULL, `title` TEXT, "
+                + "`recurring` INTEGER NOT NULL, `daysMask` INTEGER NOT NULL)");
+            db.execSQL("INSERT INTO `alarm_table_new` "
+                + "(alarmId, hour, minute, started, title, recurring, daysMask) "
+                + "SELECT alarmId, hour, minute, started, title, recurring, "
+                + "(monday != 0) | ((tuesday != 0) << 1) | ((wednesday != 0) << 2) | ((thursday != 0) << 3) "
+                + "| ((friday != 0) << 4) | ((saturday != 0) << 5) | ((sunday != 0) << 6) "
+                + "FROM `alarm_table`");
+            db.execSQL("DROP TABLE `alarm_table`");
+            db.execSQL("ALTER TABLE `alarm_table_new` RENAME TO `alarm_table`");
+        }
+    };
+
+    // v3: append-only journal of solved challenges, drained by consumeCompletionsSince
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `completion_table` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`completedAt` INTEGER NOT NULL, `utcOffsetMinutes` INTEGER NOT NULL)");
+        }
+    };
+
+    // v4: optional per-alarm escalation profile
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `alarm_table` ADD COLUMN `escalation` TEXT");
+        }
+    };
+
+    // v5: persisted next trigger, indexed with started for "what fires next" range reads
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `alarm_table` ADD COLUMN `nextTriggerAt` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_alarm_table_started_nextTriggerAt` "
+                + "ON `alarm_table` (`started`, `nextTriggerAt`)");
+        }
+    };
+
+    // v6: per-day challenge log and its single-row running aggregates
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `challenge_log` ("
+                + "`dateKey` TEXT NOT NULL, `epochDay` INTEGER NOT NULL, `status` INTEGER NOT NULL, "
+                + "`actualWakeAt` INTEGER NOT NULL, `wakeDelayMinutes` INTEGER, "
+                + "`solvedMath` INTEGER NOT NULL, PRIMARY KEY(`dateKey`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `challenge_stats` ("
+                + "`id` INTEGER NOT NULL, `completedDays` INTEGER NOT NULL, `missedDays` INTEGER NOT NULL, "
+                + "`runLength` INTEGER NOT NULL, `runEndDay` INTEGER NOT NULL, `latestMissedDay` INTEGER NOT NULL, "
+                + "`bestStreak` INTEGER NOT NULL, `wakeDelayTotalMinutes` INTEGER NOT NULL, "
+                + "`wakeDelaySamples` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+        }
+    };
+
+    // v7: durable cloud sync outbox, one row per pending entity
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sync_outbox` ("
+                + "`entityKey` TEXT NOT NULL, `payload` TEXT, `version` INTEGER NOT NULL, "
+                + "`updatedAt` INTEGER NOT NULL, PRIMARY KEY(`entityKey`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_sync_outbox_version` ON `sync_outbox` (`version`)");
+        }
+    };
+
+    // v8: one-off alarms keep their absolute ring time
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `alarm_table` ADD COLUMN `fireAt` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
 
     public static synchronized AlarmDatabase getInstance(Context context) {
         if (instance == null) {
@@ -16,8 +105,9 @@ public abstract class AlarmDatabase extends RoomDatabase {
                 context.getApplicationContext(),
                 AlarmDatabase.class,
                 "alarm_database"
-            ).build();
+            ).addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8)
+            .build();
         }
         return instance;
     }
-} 
\ No newline at end of file
+}
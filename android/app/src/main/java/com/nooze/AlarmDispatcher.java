@@ -0,0 +1,360 @@
+package com.nooze;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps every started alarm from alarm_table in an AlarmSchedule and registers
+ * only the earliest deadline with AlarmManager.setAlarmClock. After each firing
+ * the due alarms are advanced and the next deadline is armed, so the system
+ * alarm list holds a single entry no matter how many alarms exist. Queue and
+ * trigger logic live in AlarmSchedule so the JVM simulator can replay them;
+ * this class adds Room persistence and the AlarmManager target.
+ *
+ * Methods touch Room and must not run on the main thread; receivers and
+ * activities hand work over with runAsync().
+ */
+public class AlarmDispatcher {
+    private static final String TAG = "AlarmDispatcher";
+    // Shared by every armed deadline so re-arming replaces rather than adds. Alarm ids are positive
+    // and legacy registrations used them as request codes, so a negative code never collides.
+    private static final int DISPATCH_REQUEST_CODE = -1;
+    // What the dispatcher registered under before it had a dedicated code
+    private static final int OLD_DISPATCH_REQUEST_CODE = 0;
+
+    private static AlarmDispatcher instance;
+    private static Clock clock = Clock.SYSTEM;
+
+    private final Context context;
+    private final AlarmDao alarmDao;
+    private final AlarmManager alarmManager;
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final AlarmSchedule<Alarm> schedule;
+    private final AlarmSchedule.Target<Alarm> systemTarget = new SystemAlarmTarget();
+    private boolean loaded;
+
+    private AlarmDispatcher(Context context) {
+        this.context = context.getApplicationContext();
+        this.alarmDao = AlarmDatabase.getInstance(this.context).alarmDao();
+        this.alarmManager = (AlarmManager) this.context.getSystemService(Context.ALARM_SERVICE);
+        this.schedule = new AlarmSchedule<>(clock);
+    }
+
+    public static synchronized AlarmDispatcher getInstance(Context context) {
+        if (instance == null) {
+            instance = new AlarmDispatcher(context);
+        }
+        return instance;
+    }
+
+    /** "Now" for static wake-path helpers that have no dispatcher at hand. */
+    public static synchronized Clock clock() {
+        return clock;
+    }
+
+    /** Swaps the clock; the current dispatcher is dropped and the next getInstance() reloads around it. */
+    @VisibleForTesting
+    public static synchronized void setClock(Clock replacement) {
+        clock = replacement;
+        if (instance != null) {
+            instance.executorService.shutdown();
+            instance = null;
+        }
+    }
+
+    public void runAsync(Runnable task) {
+        executorService.execute(task);
+    }
+
+    /** Clock every trigger is computed against; receivers read "now" from here too. */
+    public Clock getClock() {
+        return schedule.getClock();
+    }
+
+    /** Rebuilds the queue from alarm_table and arms the earliest deadline. */
+    public synchronized void reload() {
+        load(getClock().currentTimeMillis());
+        arm();
+        Log.d(TAG, "Loaded " + schedule.size() + " started alarm(s)");
+    }
+
+    // Queues every started alarm at its next trigger after since, persisting triggers that went stale
+    private void load(long since) {
+        List<Alarm> started = alarmDao.getStartedAlarms();
+        if (started.isEmpty()) {
+            Alarm legacy = migrateLegacyDailyAlarm();
+            if (legacy != null) started.add(legacy);
+        }
+
+        HashMap<Integer, Long> stored = new HashMap<>();
+        for (Alarm alarm : started) {
+            stored.put(alarm.getAlarmId(), alarm.getNextTriggerAt());
+        }
+        // A deadline armed by an older build would ring alongside the one armed below
+        cancelLegacyRegistration(OLD_DISPATCH_REQUEST_CODE);
+        schedule.clear();
+        schedule.putAll(started, since);
+        // Only rows whose persisted trigger went stale (time passed, zone changed, upgrade) are written
+        List<Alarm> stale = new ArrayList<>();
+        for (Alarm alarm : started) {
+            if (stored.get(alarm.getAlarmId()) != alarm.getNextTriggerAt()) stale.add(alarm);
+        }
+        if (!stale.isEmpty()) alarmDao.updateNextTriggers(stale);
+        loaded = true;
+        schedule.forgetArmed();
+    }
+
+    /** Arms the earliest deadline, loading alarm_table first if this process has not yet. */
+    public synchronized void rearm() {
+        if (!loaded) {
+            reload();
+            return;
+        }
+        arm();
+    }
+
+    /**
+     * Recomputes every queued trigger against the current clock and zone and moves
+     * only the ones that changed; AlarmManager is touched at most once, and only if
+     * the earliest deadline moved. Returns how many alarms were moved.
+     */
+    public synchronized int refreshTriggers() {
+        if (!loaded) {
+            // A fresh process has nothing stale in memory; loading computes every trigger anew
+            reload();
+            return schedule.size();
+        }
+        List<Alarm> moved = new ArrayList<>();
+        schedule.refresh(moved);
+        if (!moved.isEmpty()) alarmDao.updateNextTriggers(moved);
+        arm();
+        return moved.size();
+    }
+
+    /** Queues the alarm's next trigger and persists it as started with that trigger. */
+    public synchronized void schedule(Alarm alarm) {
+        ensureLoaded();
+        alarm.setStarted(true);
+        schedule.put(alarm);
+        alarmDao.upsert(alarm);
+        arm();
+    }
+
+    /** Persists every alarm in one transaction and re-arms once for the whole batch. */
+    public synchronized void scheduleAll(List<Alarm> batch) {
+        ensureLoaded();
+        for (Alarm alarm : batch) {
+            alarm.setStarted(true);
+        }
+        schedule.putAll(batch);
+        alarmDao.upsertAll(batch);
+        arm();
+    }
+
+    /**
+     * Makes alarm_table match incoming (the full JS alarm list, keyed by alarmId).
+     * Only rows that differ are inserted, updated or deleted, all in one transaction,
+     * and only those alarms are moved in the queue. Returns {inserted, updated, deleted}.
+     */
+    public synchronized int[] sync(List<Alarm> incoming) {
+        ensureLoaded();
+        HashMap<Integer, Alarm> existing = new HashMap<>();
+        for (Alarm alarm : alarmDao.getAll()) {
+            existing.put(alarm.getAlarmId(), alarm);
+        }
+
+        List<Alarm> inserts = new ArrayList<>();
+        List<Alarm> updates = new ArrayList<>();
+        for (Alarm alarm : incoming) {
+            Alarm current = existing.remove(alarm.getAlarmId());
+            if (current == null) {
+                inserts.add(alarm);
+            } else if (!current.sameAs(alarm)) {
+                updates.add(alarm);
+            }
+        }
+        // Whatever is left was removed on the JS side
+        List<Integer> deletes = new ArrayList<>(existing.keySet());
+        if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()) {
+            return new int[] {0, 0, 0};
+        }
+        // Queue first so inserted and updated rows are written with their next trigger
+        for (int alarmId : deletes) {
+            schedule.remove(alarmId);
+        }
+        for (List<Alarm> changed : Arrays.asList(inserts, updates)) {
+            for (Alarm alarm : changed) {
+                if (alarm.isStarted()) {
+                    schedule.put(alarm);
+                } else {
+                    schedule.remove(alarm.getAlarmId());
+                }
+            }
+        }
+        alarmDao.applyBatch(inserts, updates, deletes);
+        arm();
+        return new int[] {inserts.size(), updates.size(), deletes.size()};
+    }
+
+    /** Marks the alarm as stopped and drops it from the queue. */
+    public synchronized void cancel(int alarmId) {
+        ensureLoaded();
+        alarmDao.setStarted(alarmId, false);
+        schedule.remove(alarmId);
+        arm();
+    }
+
+    /** Stops every listed alarm with one update and re-arms once. */
+    public synchronized void cancelAll(List<Integer> alarmIds) {
+        ensureLoaded();
+        alarmDao.setStartedAll(alarmIds, false);
+        for (int alarmId : alarmIds) {
+            schedule.remove(alarmId);
+        }
+        arm();
+    }
+
+    /** Deletes every alarm and unregisters the system alarm. */
+    public synchronized void clear() {
+        alarmDao.deleteAll();
+        // Nothing left to migrate either; the legacy prefs alarm is cleared with the rest
+        NoozeState state = NoozeState.getInstance(context);
+        if (!state.isLegacyAlarmMigrated()) {
+            cancelLegacyRegistration(state.getLastAlarmId());
+            state.setLegacyAlarmMigrated(true);
+        }
+        schedule.clear();
+        loaded = true;
+        arm();
+    }
+
+    /**
+     * Called when the deadline armed for triggerAt fires: advances every alarm that
+     * is due, stops one-off alarms and arms the next deadline.
+     */
+    public synchronized void onFired(int alarmId, long triggerAt) {
+        if (!loaded) {
+            // The firing started this process; queue from just before triggerAt so a one-off it was
+            // armed for is still due here instead of being pushed to its next occurrence
+            load(Math.min(getClock().currentTimeMillis(), triggerAt - 1));
+        }
+        List<Alarm> fired = new ArrayList<>();
+        // The fired PendingIntent is spent, so advanceDue() also forgets the armed deadline
+        schedule.advanceDue(fired);
+        for (Alarm alarm : fired) {
+            if (!alarm.isRecurring()) alarm.setStarted(false);
+        }
+        if (!fired.isEmpty()) alarmDao.recordFired(fired);
+        Log.d(TAG, "Alarm " + alarmId + " fired; " + schedule.size() + " alarm(s) still queued");
+        arm();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) reload();
+    }
+
+    private void arm() {
+        schedule.arm(systemTarget);
+    }
+
+    /** Registers the earliest deadline as a single setAlarmClock entry. */
+    private class SystemAlarmTarget implements AlarmSchedule.Target<Alarm> {
+        @Override
+        public void setAlarmClock(long triggerTime, Alarm alarm) {
+            Intent intent = new Intent(context, AlarmBroadcastReceiver.class);
+            intent.putExtra("ALARM_ID", alarm.getAlarmId());
+            intent.putExtra("TITLE", alarm.getTitle());
+            intent.putExtra("RECURRING", alarm.isRecurring());
+            intent.putExtra("DAYS_MASK", alarm.getDaysMask());
+            intent.putExtra("ESCALATION", alarm.getEscalation());
+            intent.putExtra("TRIGGER_AT", triggerTime);
+            PendingIntent pendingIntent = PendingIntent.getBroadcast(
+                context,
+                DISPATCH_REQUEST_CODE,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+            );
+            alarmManager.setAlarmClock(new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent), pendingIntent);
+            Log.d(TAG, "Armed alarm " + alarm.getAlarmId() + " for " + new java.util.Date(triggerTime));
+            // Decode the alarm sound and generate challenges now so nothing waits on them when it fires.
+            // Both touch the disk, so they run after the current task instead of under the dispatcher lock.
+            runAsync(() -> {
+                AlarmAudioEngine.prewarm(context);
+                refillChallengePool();
+            });
+        }
+
+        @Override
+        public void cancel() {
+            Intent intent = new Intent(context, AlarmBroadcastReceiver.class);
+            PendingIntent pendingIntent = PendingIntent.getBroadcast(
+                context,
+                DISPATCH_REQUEST_CODE,
+                intent,
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
+            );
+            if (pendingIntent != null) {
+                alarmManager.cancel(pendingIntent);
+                pendingIntent.cancel();
+            }
+            Log.d(TAG, "No alarms queued; dispatcher disarmed");
+        }
+    }
+
+    /** Tops up the pre-generated challenge pool for the configured difficulty. */
+    public void refillChallengePool() {
+        try {
+            int difficulty = NoozeState.getInstance(context).getChallengeDifficulty();
+            if (ChallengePool.getInstance(context.getFilesDir()).ensureFilled(ArithmeticChallenge.INSTANCE, difficulty)) {
+                Log.d(TAG, "Refilled challenge pool at difficulty " + difficulty);
+            }
+        } catch (java.io.IOException e) {
+            Log.w(TAG, "Challenge pool unavailable: " + e.getMessage());
+        }
+    }
+
+    // Before the dispatcher, JS alarms were only recorded as prefs keys (now NoozeState) and registered
+    // under their own request code; move that alarm into alarm_table once.
+    private Alarm migrateLegacyDailyAlarm() {
+        NoozeState state = NoozeState.getInstance(context);
+        int hour = state.getDailyWakeHour();
+        int minute = state.getDailyWakeMinute();
+        if (hour < 0 || minute < 0 || state.isLegacyAlarmMigrated()) {
+            return null;
+        }
+        int alarmId = state.getLastAlarmId();
+        cancelLegacyRegistration(alarmId);
+
+        Alarm alarm = new Alarm(hour, minute, "Alarm " + alarmId, true, true, NextTriggerCalculator.EVERY_DAY);
+        alarm.setAlarmId(alarmId);
+        alarmDao.upsert(alarm);
+        state.setLegacyAlarmMigrated(true);
+        Log.d(TAG, "Migrated legacy daily alarm " + alarmId + " into alarm_table");
+        return alarm;
+    }
+
+    private void cancelLegacyRegistration(int alarmId) {
+        Intent legacyIntent = new Intent(context, AlarmBroadcastReceiver.class);
+        PendingIntent legacy = PendingIntent.getBroadcast(
+            context,
+            alarmId,
+            legacyIntent,
+            PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
+        );
+        if (legacy != null) {
+            alarmManager.cancel(legacy);
+            legacy.cancel();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.nooze;
+
+import android.os.Bundle;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pushes native alarm state changes to JS through RCTDeviceEventEmitter.
+ *
+ * Services and activities call emit() whenever the state changes. Until a JS
+ * context is attached and listening, events wait in a bounded buffer and are
+ * delivered in order once AlarmModule reports the first listener.
+ */
+public class AlarmEventEmitter {
+    private static final String TAG = "AlarmEventEmitter";
+
+    public static final String EVENT_ALARM_FIRED = "NoozeAlarmFired";
+    public static final String EVENT_RING_VISIBILITY = "NoozeRingVisibility";
+    public static final String EVENT_MATH_COMPLETED = "NoozeMathCompleted";
+    public static final String EVENT_ALARM_CLEARED = "NoozeAlarmCleared";
+
+    // Oldest events are dropped beyond this; JS still reconciles through the completion journal
+    private static final int MAX_BUFFERED = 64;
+
+    private static class PendingEvent {
+        final String name;
+        final Bundle payload;
+
+        PendingEvent(String name, Bundle payload) {
+            this.name = name;
+            this.payload = payload;
+        }
+    }
+
+    private static final ArrayDeque<PendingEvent> buffer = new ArrayDeque<>();
+    private static ReactContext reactContext;
+    private static int listenerCount;
+
+    public static synchronized void attach(ReactContext context) {
+        reactContext = context;
+        listenerCount = 0;
+    }
+
+    public static synchronized void detach(ReactContext context) {
+        if (reactContext == context) {
+            reactContext = null;
+            listenerCount = 0;
+        }
+    }
+
+    public static synchronized void addListener() {
+        listenerCount++;
+        if (listenerCount == 1) drain();
+    }
+
+    public static synchronized void removeListeners(int count) {
+        listenerCount = Math.max(0, listenerCount - count);
+    }
+
+    public static synchronized void emit(String name, Bundle payload) {
+        payload.putDouble("at", AlarmDispatcher.clock().currentTimeMillis());
+        if (canDeliver() && buffer.isEmpty() && deliver(name, payload)) {
+            return;
+        }
+        if (buffer.size() == MAX_BUFFERED) buffer.pollFirst();
+        buffer.addLast(new PendingEvent(name, payload));
+        drain();
+    }
+
+    public static void emitAlarmFired(int alarmId, String title) {
+        Bundle payload = new Bundle();
+        payload.putInt("alarmId", alarmId);
+        payload.putString("title", title);
+        emit(EVENT_ALARM_FIRED, payload);
+    }
+
+    public static void emitRingVisibility(boolean visible) {
+        Bundle payload = new Bundle();
+        payload.putBoolean("visible", visible);
+        emit(EVENT_RING_VISIBILITY, payload);
+    }
+
+    public static void emitMathCompleted(long completionId, long completedAt) {
+        Bundle payload = new Bundle();
+        payload.putDouble("id", completionId);
+        payload.putDouble("completedAt", completedAt);
+        emit(EVENT_MATH_COMPLETED, payload);
+    }
+
+    public static void emitAlarmCleared(String reason) {
+        Bundle payload = new Bundle();
+        payload.putString("reason", reason);
+        emit(EVENT_ALARM_CLEARED, payload);
+    }
+
+    private static boolean canDeliver() {
+        return reactContext != null && listenerCount > 0 && reactContext.hasActiveReactInstance();
+    }
+
+    private static void drain() {
+        while (!buffer.isEmpty() && canDeliver()) {
+            PendingEvent event = buffer.peekFirst();
+            if (!deliver(event.name, event.payload)) return;
+            buffer.pollFirst();
+        }
+    }
+
+    private static boolean deliver(String name, Bundle payload) {
+        try {
+            reactContext
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(name, Arguments.fromBundle(payload));
+            return true;
+        } catch (Exception e) {
+            Log.w(TAG, "Could not deliver " + name + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nooze;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of trigger-to-ring latency samples, one record per firing.
+ *
+ * Each record holds the scheduled trigger time and, per stage, how many millis
+ * after it that stage was reached (-1 when it was not). The file is memory
+ * mapped, so marking a stage on the wake path is a store into the page cache
+ * rather than a write syscall, and samples survive the process being killed
+ * between the receiver and the ring screen.
+ */
+public class AlarmLatencyLog {
+    public static final int STAGE_RECEIVE = 0;
+    public static final int STAGE_SERVICE_CREATE = 1;
+    public static final int STAGE_SERVICE_START = 2;
+    public static final int STAGE_AUDIO_START = 3;
+    public static final int STAGE_RING_CREATE = 4;
+    public static final int STAGE_COUNT = 5;
+
+    private static final String[] STAGE_NAMES = {
+        "receive", "serviceCreate", "serviceStart", "audioStart", "ringCreate"
+    };
+    private static final String FILE_NAME = "alarm_latency.bin";
+    private static final int CAPACITY = 256;
+    // Header: next slot to write, number of valid records
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 8 + 4 * STAGE_COUNT;
+    // A stage reached later than this belongs to a stale record, not the current firing
+    private static final long MAX_SAMPLE_AGE_MS = 15 * 60 * 1000L;
+
+    private static AlarmLatencyLog instance;
+
+    private final MappedByteBuffer buffer;
+
+    public static synchronized AlarmLatencyLog getInstance(File filesDir) throws IOException {
+        if (instance == null) {
+            instance = new AlarmLatencyLog(new File(filesDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    public AlarmLatencyLog(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) CAPACITY * RECORD_BYTES);
+        }
+        if (buffer.getInt(0) < 0 || buffer.getInt(0) >= CAPACITY || buffer.getInt(4) < 0 || buffer.getInt(4) > CAPACITY) {
+            buffer.putInt(0, 0);
+            buffer.putInt(4, 0);
+        }
+    }
+
+    /** Best-effort start of a sample; instrumentation must never get in the way of ringing. */
+    public static void recordFiring(File filesDir, long scheduledAt, long receivedAt) {
+        try {
+            AlarmLatencyLog log = getInstance(filesDir);
+            log.begin(scheduledAt);
+            log.mark(STAGE_RECEIVE, receivedAt);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Best-effort stage mark for the wake path, timestamped before the log is touched. */
+    public static void recordStage(File filesDir, int stage, Clock clock) {
+        long now = clock.currentTimeMillis();
+        try {
+            getInstance(filesDir).mark(stage, now);
+        } catch (IOException ignored) {
+        }
+    }
+
+    public static String stageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    /** Opens a new record for a firing that was scheduled for scheduledAt. */
+    public synchronized void begin(long scheduledAt) {
+        int slot = buffer.getInt(0);
+        int offset = recordOffset(slot);
+        buffer.putLong(offset, scheduledAt);
+        for (int stage = 0; stage < STAGE_COUNT; stage++) {
+            buffer.putInt(offset + 8 + 4 * stage, -1);
+        }
+        buffer.putInt(0, (slot + 1) % CAPACITY);
+        buffer.putInt(4, Math.min(buffer.getInt(4) + 1, CAPACITY));
+    }
+
+    /** Records the first time the current firing reached stage; later repeats are ignored. */
+    public synchronized void mark(int stage, long nowMillis) {
+        if (buffer.getInt(4) == 0) return;
+        int offset = recordOffset((buffer.getInt(0) + CAPACITY - 1) % CAPACITY);
+        long elapsed = nowMillis - buffer.getLong(offset);
+        if (elapsed > MAX_SAMPLE_AGE_MS) return;
+        int stageOffset = offset + 8 + 4 * stage;
+        if (buffer.getInt(stageOffset) >= 0) return;
+        buffer.putInt(stageOffset, (int) Math.max(0, elapsed));
+    }
+
+    /** Latencies in millis recorded for stage, ascending. */
+    public synchronized int[] sortedSamples(int stage) {
+        int count = buffer.getInt(4);
+        int[] samples = new int[count];
+        int n = 0;
+        for (int slot = 0; slot < count; slot++) {
+            int value = buffer.getInt(recordOffset(slot) + 8 + 4 * stage);
+            if (value >= 0) samples[n++] = value;
+        }
+        samples = Arrays.copyOf(samples, n);
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    /** Nearest-rank percentile of an ascending sample array, or -1 when it is empty. */
+    public static int percentile(int[] sorted, int percent) {
+        if (sorted.length == 0) return -1;
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static int recordOffset(int slot) {
+        return HEADER_BYTES + slot * RECORD_BYTES;
+    }
+}
@@ -7,185 +7,275 @@ import android.content.Intent;
 import android.os.Build;
 import android.util.Log;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
 import android.content.SharedPreferences;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bridge module typed on the JS side by src/specs/NativeAlarmModule.ts. Registered lazily
+ * by AlarmPackage, so it is created the first time JS touches it rather than at startup.
+ * Read-only flags are blocking synchronous bridge methods; everything else resolves a
+ * Promise from moduleExecutor.
+ */
 public class AlarmModule extends ReactContextBaseJavaModule {
+    public static final String NAME = "AlarmModule";
     private static final String TAG = "AlarmModule";
     private final ReactApplicationContext reactContext;
     private final AlarmManager alarmManager;
+    // AlarmManager/PendingIntent IPC, Room and state writes run here instead of on the shared
+    // native-modules thread. Serial, so calls for the same alarm id apply in the order JS made them.
+    private final ExecutorService moduleExecutor = Executors.newSingleThreadExecutor();
+    private final CallTimings callTimings = new CallTimings();
 
     public AlarmModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
         this.alarmManager = (AlarmManager) reactContext.getSystemService(Context.ALARM_SERVICE);
+        AlarmEventEmitter.attach(reactContext);
         Log.d(TAG, "AlarmModule constructor called - Module initialized!");
     }
-    @ReactMethod
-    public void canScheduleExactAlarms(Promise promise) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) { // API 31+
-                boolean allowed = alarmManager.canScheduleExactAlarms();
-                promise.resolve(allowed);
-            } else {
-                promise.resolve(true);
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking canScheduleExactAlarms: " + e.getMessage());
-            promise.resolve(true);
-        }
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean canScheduleExactAlarms() {
+        return readFlag("canScheduleExactAlarms", true, () ->
+            Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms());
     }
 
     @ReactMethod
     public void openExactAlarmSettings(Promise promise) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                Intent intent = new Intent(android.provider.Settings.ACTION_REQUEST_SCHEDULE_EXACT_ALARM);
-                intent.setData(android.net.Uri.parse("package:" + reactContext.getPackageName()));
-                intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                reactContext.startActivity(intent);
-                promise.resolve(true);
-            } else {
-                promise.resolve(true);
+        runOrdered("openExactAlarmSettings", () -> {
+            try {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+                    Intent intent = new Intent(android.provider.Settings.ACTION_REQUEST_SCHEDULE_EXACT_ALARM);
+                    intent.setData(android.net.Uri.parse("package:" + reactContext.getPackageName()));
+                    intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                    reactContext.startActivity(intent);
+                    promise.resolve(true);
+                } else {
+                    promise.resolve(true);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error opening exact alarm settings: " + e.getMessage());
+                promise.resolve(false);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error opening exact alarm settings: " + e.getMessage());
-            promise.resolve(false);
-        }
+        });
     }
 
     @ReactMethod
     public void openAppNotificationSettings(Promise promise) {
-        try {
-            Intent intent = new Intent();
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                intent.setAction(android.provider.Settings.ACTION_APP_NOTIFICATION_SETTINGS);
-                intent.putExtra(android.provider.Settings.EXTRA_APP_PACKAGE, reactContext.getPackageName());
-            } else {
-                intent.setAction(android.provider.Settings.ACTION_APPLICATION_DETAILS_SETTINGS);
-                intent.setData(android.net.Uri.parse("package:" + reactContext.getPackageName()));
+        runOrdered("openAppNotificationSettings", () -> {
+            try {
+                Intent intent = new Intent();
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                    intent.setAction(android.provider.Settings.ACTION_APP_NOTIFICATION_SETTINGS);
+                    intent.putExtra(android.provider.Settings.EXTRA_APP_PACKAGE, reactContext.getPackageName());
+                } else {
+                    intent.setAction(android.provider.Settings.ACTION_APPLICATION_DETAILS_SETTINGS);
+                    intent.setData(android.net.Uri.parse("package:" + reactContext.getPackageName()));
+                }
+                intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                reactContext.startActivity(intent);
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error opening app notification settings: " + e.getMessage());
+                promise.resolve(false);
             }
-            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-            reactContext.startActivity(intent);
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error opening app notification settings: " + e.getMessage());
-            promise.resolve(false);
-        }
+        });
     }
 
     @ReactMethod
     public void requestIgnoreBatteryOptimizations(Promise promise) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                Intent intent = new Intent(android.provider.Settings.ACTION_REQUEST_IGNORE_BATTERY_OPTIMIZATIONS);
-                intent.setData(android.net.Uri.parse("package:" + reactContext.getPackageName()));
-                intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                reactContext.startActivity(intent);
+        runOrdered("requestIgnoreBatteryOptimizations", () -> {
+            try {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                    Intent intent = new Intent(android.provider.Settings.ACTION_REQUEST_IGNORE_BATTERY_OPTIMIZATIONS);
+                    intent.setData(android.net.Uri.parse("package:" + reactContext.getPackageName()));
+                    intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                    reactContext.startActivity(intent);
+                }
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error requesting ignore battery optimizations: " + e.getMessage());
+                promise.resolve(false);
             }
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error requesting ignore battery optimizations: " + e.getMessage());
-            promise.resolve(false);
-        }
+        });
     }
 
     @ReactMethod
     public void createAlarmChannel(Promise promise) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                NotificationManager nm = (NotificationManager) reactContext.getSystemService(Context.NOTIFICATION_SERVICE);
-                NotificationChannel channel = new NotificationChannel(
-                        "AlarmChannel",
-                        "Alarm Notifications",
-                        NotificationManager.IMPORTANCE_HIGH
-                );
-                channel.setDescription("Channel for alarm notifications");
-                channel.setLockscreenVisibility(android.app.Notification.VISIBILITY_PUBLIC);
-                channel.enableVibration(true);
-                channel.enableLights(true);
-                nm.createNotificationChannel(channel);
+        runOrdered("createAlarmChannel", () -> {
+            try {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                    NotificationManager nm = (NotificationManager) reactContext.getSystemService(Context.NOTIFICATION_SERVICE);
+                    NotificationChannel channel = new NotificationChannel(
+                            "AlarmChannel",
+                            "Alarm Notifications",
+                            NotificationManager.IMPORTANCE_HIGH
+                    );
+                    channel.setDescription("Channel for alarm notifications");
+                    channel.setLockscreenVisibility(android.app.Notification.VISIBILITY_PUBLIC);
+                    channel.enableVibration(true);
+                    channel.enableLights(true);
+                    nm.createNotificationChannel(channel);
+                }
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error creating alarm channel: " + e.getMessage());
+                promise.resolve(false);
             }
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error creating alarm channel: " + e.getMessage());
-            promise.resolve(false);
-        }
+        });
     }
 
     @ReactMethod
     public void postTestNotification(Promise promise) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                // Ensure channel exists
+        runOrdered("postTestNotification", () -> {
+            try {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                    // Ensure channel exists
+                    NotificationManager nm = (NotificationManager) reactContext.getSystemService(Context.NOTIFICATION_SERVICE);
+                    NotificationChannel channel = new NotificationChannel(
+                            "AlarmChannel",
+                            "Alarm Notifications",
+                            NotificationManager.IMPORTANCE_HIGH
+                    );
+                    channel.setDescription("Channel for alarm notifications");
+                    channel.setLockscreenVisibility(android.app.Notification.VISIBILITY_PUBLIC);
+                    nm.createNotificationChannel(channel);
+                }
                 NotificationManager nm = (NotificationManager) reactContext.getSystemService(Context.NOTIFICATION_SERVICE);
-                NotificationChannel channel = new NotificationChannel(
-                        "AlarmChannel",
-                        "Alarm Notifications",
-                        NotificationManager.IMPORTANCE_HIGH
-                );
-                channel.setDescription("Channel for alarm notifications");
-                channel.setLockscreenVisibility(android.app.Notification.VISIBILITY_PUBLIC);
-                nm.createNotificationChannel(channel);
+                NotificationCompat.Builder builder = new NotificationCompat.Builder(reactContext, "AlarmChannel")
+                        .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+                        .setContentTitle("Nooze notifications")
+                        .setContentText("Tap to configure notifications")
+                        .setPriority(NotificationCompat.PRIORITY_HIGH)
+                        .setCategory(NotificationCompat.CATEGORY_REMINDER)
+                        .setAutoCancel(true);
+                nm.notify(42, builder.build());
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error posting test notification: " + e.getMessage());
+                promise.resolve(false);
             }
-            NotificationManager nm = (NotificationManager) reactContext.getSystemService(Context.NOTIFICATION_SERVICE);
-            NotificationCompat.Builder builder = new NotificationCompat.Builder(reactContext, "AlarmChannel")
-                    .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
-                    .setContentTitle("Nooze notifications")
-                    .setContentText("Tap to configure notifications")
-                    .setPriority(NotificationCompat.PRIORITY_HIGH)
-                    .setCategory(NotificationCompat.CATEGORY_REMINDER)
-                    .setAutoCancel(true);
-            nm.notify(42, builder.build());
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error posting test notification: " + e.getMessage());
-            promise.resolve(false);
-        }
+        });
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean areNotificationsEnabled() {
+        return readFlag("areNotificationsEnabled", false, () ->
+            NotificationManagerCompat.from(reactContext).areNotificationsEnabled());
     }
 
     @ReactMethod
-    public void areNotificationsEnabled(Promise promise) {
+    public void openChannelNotificationSettings(String channelId, Promise promise) {
+        runOrdered("openChannelNotificationSettings", () -> {
+            try {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                    Intent intent = new Intent(android.provider.Settings.ACTION_CHANNEL_NOTIFICATION_SETTINGS);
+                    intent.putExtra(android.provider.Settings.EXTRA_APP_PACKAGE, reactContext.getPackageName());
+                    intent.putExtra(android.provider.Settings.EXTRA_CHANNEL_ID, channelId);
+                    intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                    reactContext.startActivity(intent);
+                    promise.resolve(true);
+                } else {
+                    // Fallback to app notification settings
+                    openAppNotificationSettings(promise);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error opening channel notification settings: " + e.getMessage());
+                promise.resolve(false);
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Synchronous reads run on the JS thread, so they must stay a memory read or a single system query
+    private boolean readFlag(String name, boolean fallback, BooleanSupplier read) {
+        long startedAt = System.nanoTime();
         try {
-            boolean enabled = NotificationManagerCompat.from(reactContext).areNotificationsEnabled();
-            promise.resolve(enabled);
+            return read.getAsBoolean();
         } catch (Exception e) {
-            Log.e(TAG, "Error checking notifications enabled: " + e.getMessage());
-            promise.resolve(false);
+            Log.e(TAG, "Error reading " + name + ": " + e.getMessage());
+            return fallback;
+        } finally {
+            callTimings.record(name, 0, System.nanoTime() - startedAt);
         }
     }
 
-    @ReactMethod
-    public void openChannelNotificationSettings(String channelId, Promise promise) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                Intent intent = new Intent(android.provider.Settings.ACTION_CHANNEL_NOTIFICATION_SETTINGS);
-                intent.putExtra(android.provider.Settings.EXTRA_APP_PACKAGE, reactContext.getPackageName());
-                intent.putExtra(android.provider.Settings.EXTRA_CHANNEL_ID, channelId);
-                intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                reactContext.startActivity(intent);
-                promise.resolve(true);
-            } else {
-                // Fallback to app notification settings
-                openAppNotificationSettings(promise);
+    private void runOrdered(String name, Runnable task) {
+        final long enqueuedAt = System.nanoTime();
+        moduleExecutor.execute(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                callTimings.record(name, startedAt - enqueuedAt, System.nanoTime() - startedAt);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error opening channel notification settings: " + e.getMessage());
-            promise.resolve(false);
+        });
+    }
+
+    /**
+     * Queue wait and execution time per bridge method, in microseconds, plus the
+     * alarm receiver's steps under "receiver.<step>".
+     */
+    @ReactMethod
+    public void getExecutorStats(Promise promise) {
+        WritableMap result = Arguments.createMap();
+        putTimings(result, "", callTimings);
+        putTimings(result, "receiver.", AlarmBroadcastReceiver.STEP_TIMINGS);
+        promise.resolve(result);
+    }
+
+    private static void putTimings(WritableMap result, String prefix, CallTimings timings) {
+        for (Map.Entry<String, CallTimings.Stats> entry : timings.snapshot().entrySet()) {
+            CallTimings.Stats stats = entry.getValue();
+            WritableMap call = Arguments.createMap();
+            call.putDouble("count", stats.count);
+            call.putDouble("queuedTotalUs", stats.queuedTotalUs);
+            call.putDouble("queuedMaxUs", stats.queuedMaxUs);
+            call.putDouble("execTotalUs", stats.execTotalUs);
+            call.putDouble("execMaxUs", stats.execMaxUs);
+            result.putMap(prefix + entry.getKey(), call);
         }
     }
 
+    // Required by NativeEventEmitter; buffered native events flush once JS subscribes
+    @ReactMethod
+    public void addListener(String eventName) {
+        AlarmEventEmitter.addListener();
+    }
+
+    @ReactMethod
+    public void removeListeners(double count) {
+        AlarmEventEmitter.removeListeners((int) count);
+    }
+
     @Override
-    public String getName() {
-        return "AlarmModule";
+    public void invalidate() {
+        AlarmEventEmitter.detach(reactContext);
+        moduleExecutor.shutdown();
+        super.invalidate();
     }
 
     @ReactMethod
@@ -196,323 +286,687 @@ public class AlarmModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void checkIfAlarmLaunch(Promise promise) {
-        try {
-            Intent intent = getCurrentActivity().getIntent();
-            boolean isAlarmLaunch = intent != null && intent.getBooleanExtra("isAlarmLaunch", false);
+        runOrdered("checkIfAlarmLaunch", () -> {
+            try {
+                Intent intent = getCurrentActivity().getIntent();
+                boolean isAlarmLaunch = intent != null && intent.getBooleanExtra("isAlarmLaunch", false);
             
-            // Check shared preferences - this is the authoritative source
-            boolean isAlarmActive = reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE)
-                .getBoolean("isAlarmActive", false);
+                // Check native state - this is the authoritative source
+                boolean isAlarmActive = NoozeState.getInstance(reactContext).isAlarmActive();
             
-            // Only show alarm if BOTH intent flag is set AND shared preference is true
-            // This prevents false positives after solving
-            boolean shouldShowAlarm = isAlarmLaunch && isAlarmActive;
-            Log.d(TAG, "checkIfAlarmLaunch: intent=" + isAlarmLaunch + ", sharedPref=" + isAlarmActive + ", result=" + shouldShowAlarm);
+                // Only show alarm if BOTH intent flag is set AND the native state flag is true
+                // This prevents false positives after solving
+                boolean shouldShowAlarm = isAlarmLaunch && isAlarmActive;
+                Log.d(TAG, "checkIfAlarmLaunch: intent=" + isAlarmLaunch + ", state=" + isAlarmActive + ", result=" + shouldShowAlarm);
             
-            // ALWAYS clear the intent flag to prevent future false positives
-            // This ensures the intent flag doesn't persist across app state changes
-            if (intent != null) {
-                intent.removeExtra("isAlarmLaunch");
-                Log.d(TAG, "Intent flag cleared to prevent future false positives");
-            }
+                // ALWAYS clear the intent flag to prevent future false positives
+                // This ensures the intent flag doesn't persist across app state changes
+                if (intent != null) {
+                    intent.removeExtra("isAlarmLaunch");
+                    Log.d(TAG, "Intent flag cleared to prevent future false positives");
+                }
             
-            promise.resolve(shouldShowAlarm);
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking alarm launch: " + e.getMessage());
-            promise.resolve(false);
-        }
+                promise.resolve(shouldShowAlarm);
+            } catch (Exception e) {
+                Log.e(TAG, "Error checking alarm launch: " + e.getMessage());
+                promise.resolve(false);
+            }
+        });
     }
 
-    @ReactMethod
-    public void checkDisplayOverAppsPermission(Promise promise) {
-        try {
-            boolean hasPermission = false;
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.M) {
-                hasPermission = android.provider.Settings.canDrawOverlays(reactContext);
-            } else {
-                hasPermission = true; // For older versions, assume permission is granted
-            }
-            Log.d(TAG, "checkDisplayOverAppsPermission: " + hasPermission);
-            promise.resolve(hasPermission);
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking display over apps permission: " + e.getMessage());
-            promise.resolve(false);
-        }
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean checkDisplayOverAppsPermission() {
+        return readFlag("checkDisplayOverAppsPermission", false, () ->
+            android.provider.Settings.canDrawOverlays(reactContext));
     }
 
     @ReactMethod
     public void stopAlarmSound(Promise promise) {
-        try {
-            Intent intent = new Intent(reactContext, AlarmService.class);
-            reactContext.stopService(intent);
-            Log.d(TAG, "Alarm sound stop requested");
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error stopping alarm sound: " + e.getMessage());
-            promise.resolve(false);
-        }
+        runOrdered("stopAlarmSound", () -> {
+            try {
+                Intent intent = new Intent(reactContext, AlarmService.class);
+                reactContext.stopService(intent);
+                Log.d(TAG, "Alarm sound stop requested");
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error stopping alarm sound: " + e.getMessage());
+                promise.resolve(false);
+            }
+        });
     }
 
     @ReactMethod
     public void clearAlarmActiveFlag(Promise promise) {
-        try {
-            reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE)
-                .edit()
-                .putBoolean("isAlarmActive", false)
-                .apply();
-            Log.d(TAG, "Alarm active flag cleared from shared preferences");
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error clearing alarm active flag: " + e.getMessage());
-            promise.resolve(false);
-        }
+        runOrdered("clearAlarmActiveFlag", () -> {
+            try {
+                NoozeState.getInstance(reactContext).setAlarmActive(false);
+                Log.d(TAG, "Alarm active flag cleared");
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error clearing alarm active flag: " + e.getMessage());
+                promise.resolve(false);
+            }
+        });
     }
 
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean isAlarmStillActive() {
+        return readFlag("isAlarmStillActive", false, () -> NoozeState.getInstance(reactContext).isAlarmActive());
+    }
+
+    /**
+     * Returns every completion journaled after cursor as {cursor, events}. Passing the
+     * returned cursor on the next call acknowledges those events and prunes them, so
+     * completions are never lost if JS is killed before it reconciles them.
+     */
     @ReactMethod
-    public void isAlarmStillActive(Promise promise) {
-        try {
-            boolean isActive = reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE)
-                .getBoolean("isAlarmActive", false);
-            Log.d(TAG, "isAlarmStillActive: " + isActive);
-            promise.resolve(isActive);
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking if alarm is still active: " + e.getMessage());
-            promise.resolve(false);
-        }
+    public void consumeCompletionsSince(double cursor, Promise promise) {
+        runOrdered("consumeCompletionsSince", () -> {
+            try {
+                CompletionDao completionDao = AlarmDatabase.getInstance(reactContext).completionDao();
+                migrateLegacyCompletion(completionDao);
+                long acknowledged = (long) cursor;
+                if (acknowledged > 0) {
+                    completionDao.deleteUpTo(acknowledged);
+                }
+                List<CompletionEvent> pending = completionDao.getSince(acknowledged);
+                WritableArray events = Arguments.createArray();
+                long next = acknowledged;
+                for (CompletionEvent event : pending) {
+                    WritableMap map = Arguments.createMap();
+                    map.putDouble("id", event.getId());
+                    map.putDouble("completedAt", event.getCompletedAt());
+                    map.putInt("utcOffsetMinutes", event.getUtcOffsetMinutes());
+                    events.pushMap(map);
+                    next = event.getId();
+                }
+                WritableMap result = Arguments.createMap();
+                result.putDouble("cursor", next);
+                result.putArray("events", events);
+                promise.resolve(result);
+            } catch (Exception e) {
+                Log.e(TAG, "Error consuming completions: " + e.getMessage());
+                promise.reject("COMPLETION_ERROR", e.getMessage());
+            }
+        });
     }
 
-  @ReactMethod
-  public void consumeLastCompletion(Promise promise) {
-      try {
-          SharedPreferences prefs = reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-          boolean pending = prefs.getBoolean("lastCompletionPending", false);
-          if (!pending) {
-              promise.resolve(null);
-              return;
-          }
-          String dateKey = prefs.getString("lastCompletedDateKey", null);
-          String isoWake = prefs.getString("lastCompletedActualWakeTime", null);
-          // Clear the pending flag so it is consumed once
-          prefs.edit()
-                  .putBoolean("lastCompletionPending", false)
-                  .apply();
-          android.os.Bundle bundle = new android.os.Bundle();
-          bundle.putString("dateKey", dateKey);
-          bundle.putString("actualWakeTime", isoWake);
-          com.facebook.react.bridge.WritableMap map = com.facebook.react.bridge.Arguments.fromBundle(bundle);
-          promise.resolve(map);
-      } catch (Exception e) {
-          Log.e(TAG, "Error consuming last completion: " + e.getMessage());
-          promise.resolve(null);
-      }
-  }
+    // Completions used to be a single prefs slot; move a pending one into the journal once
+    private void migrateLegacyCompletion(CompletionDao completionDao) {
+        SharedPreferences prefs = reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
+        if (!prefs.contains("lastCompletionPending")) return;
+        String isoWake = prefs.getString("lastCompletedActualWakeTime", null);
+        if (prefs.getBoolean("lastCompletionPending", false) && isoWake != null) {
+            try {
+                java.util.Date wake = new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", java.util.Locale.US).parse(isoWake);
+                long completedAt = wake.getTime();
+                completionDao.insert(new CompletionEvent(completedAt, clock().utcOffsetMinutes(completedAt)));
+            } catch (java.text.ParseException e) {
+                Log.w(TAG, "Dropping unreadable legacy completion: " + isoWake);
+            }
+        }
+        prefs.edit()
+            .remove("lastCompletionPending")
+            .remove("lastCompletedDateKey")
+            .remove("lastCompletedActualWakeTime")
+            .apply();
+    }
 
     @ReactMethod
     public void saveAlarmsForBoot(String alarmsJson, Promise promise) {
-        try {
-            reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE)
-                .edit()
-                .putString("savedAlarms", alarmsJson)
-                .apply();
-            Log.d(TAG, "Alarms saved for boot restoration: " + alarmsJson);
+        runOrdered("saveAlarmsForBoot", () -> {
+            try {
+                reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE)
+                    .edit()
+                    .putString("savedAlarms", alarmsJson)
+                    .apply();
+                Log.d(TAG, "Alarms saved for boot restoration: " + alarmsJson);
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error saving alarms for boot: " + e.getMessage());
+                promise.resolve(false);
+            }
+        });
+    }
+
+    /** Sets the challenge difficulty (1..3) and regenerates the problem pool for it. */
+    @ReactMethod
+    public void setChallengeDifficulty(int difficulty, Promise promise) {
+        runOrdered("setChallengeDifficulty", () -> {
+            if (difficulty < ChallengeGenerator.MIN_DIFFICULTY || difficulty > ChallengeGenerator.MAX_DIFFICULTY) {
+                promise.reject("CHALLENGE_ERROR", "Difficulty must be between "
+                    + ChallengeGenerator.MIN_DIFFICULTY + " and " + ChallengeGenerator.MAX_DIFFICULTY);
+                return;
+            }
+            NoozeState.getInstance(reactContext).setChallengeDifficulty(difficulty);
+            AlarmDispatcher.getInstance(reactContext).refillChallengePool();
             promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error saving alarms for boot: " + e.getMessage());
-            promise.resolve(false);
+        });
+    }
+
+    /**
+     * Writes one challenge day {dateKey, status, actualWakeAt?, solvedMath?} and resolves the
+     * updated stats (see getChallengeStats).
+     */
+    @ReactMethod
+    public void markChallengeDay(ReadableMap day, Promise promise) {
+        runOrdered("markChallengeDay", () -> {
+            try {
+                ChallengeLogEntry entry = parseChallengeDay(day);
+                ChallengeStats stats = AlarmDatabase.getInstance(reactContext).challengeLogDao().record(entry);
+                promise.resolve(toStatsMap(stats));
+            } catch (IllegalArgumentException e) {
+                promise.reject("CHALLENGE_LOG_ERROR", e.getMessage());
+            } catch (Exception e) {
+                Log.e(TAG, "Error marking challenge day: " + e.getMessage());
+                promise.reject("CHALLENGE_LOG_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /** Bulk markChallengeDay for the legacy JSON log and cloud merges; aggregates are rebuilt once. */
+    @ReactMethod
+    public void importChallengeLog(ReadableArray days, Promise promise) {
+        runOrdered("importChallengeLog", () -> {
+            try {
+                List<ChallengeLogEntry> entries = new ArrayList<>();
+                for (int i = 0; i < days.size(); i++) {
+                    if (days.getType(i) != ReadableType.Map) continue;
+                    try {
+                        entries.add(parseChallengeDay(days.getMap(i)));
+                    } catch (IllegalArgumentException e) {
+                        Log.w(TAG, "Skipping unreadable challenge day: " + e.getMessage());
+                    }
+                }
+                ChallengeStats stats = AlarmDatabase.getInstance(reactContext).challengeLogDao().recordAll(entries);
+                promise.resolve(toStatsMap(stats));
+            } catch (Exception e) {
+                Log.e(TAG, "Error importing challenge log: " + e.getMessage());
+                promise.reject("CHALLENGE_LOG_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /** Days from fromKey to toKey inclusive, as [{dateKey, status, actualWakeAt?, wakeDelayMinutes?, solvedMath}]. */
+    @ReactMethod
+    public void getChallengeLog(String fromKey, String toKey, Promise promise) {
+        runOrdered("getChallengeLog", () -> {
+            try {
+                List<ChallengeLogEntry> entries = AlarmDatabase.getInstance(reactContext).challengeLogDao().getRange(fromKey, toKey);
+                WritableArray result = Arguments.createArray();
+                for (ChallengeLogEntry entry : entries) {
+                    WritableMap map = Arguments.createMap();
+                    map.putString("dateKey", entry.getDateKey());
+                    map.putString("status", ChallengeLogEntry.statusName(entry.getStatus()));
+                    if (entry.getActualWakeAt() > 0) map.putDouble("actualWakeAt", entry.getActualWakeAt());
+                    if (entry.getWakeDelayMinutes() != null) map.putInt("wakeDelayMinutes", entry.getWakeDelayMinutes());
+                    map.putBoolean("solvedMath", entry.isSolvedMath());
+                    result.pushMap(map);
+                }
+                promise.resolve(result);
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading challenge log: " + e.getMessage());
+                promise.reject("CHALLENGE_LOG_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Streak, completion-rate and wake-delay aggregates, read from a single row:
+     * {completedDays, missedDays, currentStreak, bestStreak, completionRate, averageWakeDelayMinutes}.
+     */
+    @ReactMethod
+    public void getChallengeStats(Promise promise) {
+        runOrdered("getChallengeStats", () -> {
+            try {
+                ChallengeStats stats = AlarmDatabase.getInstance(reactContext).challengeLogDao().getStats();
+                promise.resolve(toStatsMap(stats != null ? stats : new ChallengeStats()));
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading challenge stats: " + e.getMessage());
+                promise.reject("CHALLENGE_LOG_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    private ChallengeLogEntry parseChallengeDay(ReadableMap day) {
+        if (day == null || !day.hasKey("dateKey") || !day.hasKey("status")) {
+            throw new IllegalArgumentException("dateKey and status are required");
+        }
+        ChallengeLogEntry entry = ChallengeLogEntry.forDate(day.getString("dateKey"),
+            ChallengeLogEntry.statusOf(day.getString("status")));
+        if (day.hasKey("actualWakeAt") && !day.isNull("actualWakeAt")) {
+            entry.setActualWakeAt((long) day.getDouble("actualWakeAt"));
+        }
+        if (day.hasKey("solvedMath") && !day.isNull("solvedMath")) {
+            entry.setSolvedMath(day.getBoolean("solvedMath"));
         }
+        return entry;
+    }
+
+    private WritableMap toStatsMap(ChallengeStats stats) {
+        Clock clock = clock();
+        long now = clock.currentTimeMillis();
+        int today = (int) Math.floorDiv(now + clock.utcOffsetMinutes(now) * 60_000L, 24 * 60 * 60 * 1000L);
+        WritableMap map = Arguments.createMap();
+        map.putInt("completedDays", stats.getCompletedDays());
+        map.putInt("missedDays", stats.getMissedDays());
+        map.putInt("currentStreak", stats.currentStreak(today));
+        map.putInt("bestStreak", stats.getBestStreak());
+        map.putDouble("completionRate", stats.completionRate());
+        double delay = stats.averageWakeDelayMinutes();
+        if (delay < 0) {
+            map.putNull("averageWakeDelayMinutes");
+        } else {
+            map.putDouble("averageWakeDelayMinutes", delay);
+        }
+        return map;
+    }
+
+    /**
+     * Folds [{key, value}] into the sync outbox, value being the JSON to write at the
+     * Firestore field path key (null deletes it). Resolves the number of pending entities.
+     */
+    @ReactMethod
+    public void outboxRecord(ReadableArray changes, Promise promise) {
+        runOrdered("outboxRecord", () -> {
+            try {
+                OutboxDao outboxDao = AlarmDatabase.getInstance(reactContext).outboxDao();
+                long now = clock().currentTimeMillis();
+                for (int i = 0; i < changes.size(); i++) {
+                    if (changes.getType(i) != ReadableType.Map) continue;
+                    ReadableMap change = changes.getMap(i);
+                    if (!change.hasKey("key")) continue;
+                    String value = change.hasKey("value") && !change.isNull("value") ? change.getString("value") : null;
+                    outboxDao.record(change.getString("key"), value, now);
+                }
+                promise.resolve(outboxDao.size());
+            } catch (Exception e) {
+                Log.e(TAG, "Error recording outbox changes: " + e.getMessage());
+                promise.reject("OUTBOX_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /** Oldest limit pending entities as [{key, value, version}]; they stay queued until acked. */
+    @ReactMethod
+    public void outboxTake(int limit, Promise promise) {
+        runOrdered("outboxTake", () -> {
+            try {
+                List<OutboxEntry> entries = AlarmDatabase.getInstance(reactContext).outboxDao().take(Math.max(1, limit));
+                WritableArray result = Arguments.createArray();
+                for (OutboxEntry entry : entries) {
+                    WritableMap map = Arguments.createMap();
+                    map.putString("key", entry.getEntityKey());
+                    map.putString("value", entry.getPayload());
+                    map.putDouble("version", entry.getVersion());
+                    result.pushMap(map);
+                }
+                promise.resolve(result);
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading outbox: " + e.getMessage());
+                promise.reject("OUTBOX_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /** Drops the pushed [{key, version}] rows; entities recorded again since then stay queued. */
+    @ReactMethod
+    public void outboxAck(ReadableArray pushed, Promise promise) {
+        runOrdered("outboxAck", () -> {
+            try {
+                OutboxDao outboxDao = AlarmDatabase.getInstance(reactContext).outboxDao();
+                int acked = 0;
+                for (int i = 0; i < pushed.size(); i++) {
+                    if (pushed.getType(i) != ReadableType.Map) continue;
+                    ReadableMap entry = pushed.getMap(i);
+                    acked += outboxDao.ack(entry.getString("key"), (long) entry.getDouble("version"));
+                }
+                promise.resolve(acked);
+            } catch (Exception e) {
+                Log.e(TAG, "Error acknowledging outbox: " + e.getMessage());
+                promise.reject("OUTBOX_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void getLatencyStats(Promise promise) {
+        runOrdered("getLatencyStats", () -> {
+            try {
+                AlarmLatencyLog log = AlarmLatencyLog.getInstance(reactContext.getFilesDir());
+                WritableMap stats = Arguments.createMap();
+                for (int stage = 0; stage < AlarmLatencyLog.STAGE_COUNT; stage++) {
+                    int[] samples = log.sortedSamples(stage);
+                    WritableMap stageStats = Arguments.createMap();
+                    stageStats.putInt("count", samples.length);
+                    stageStats.putInt("p50", AlarmLatencyLog.percentile(samples, 50));
+                    stageStats.putInt("p95", AlarmLatencyLog.percentile(samples, 95));
+                    stageStats.putInt("p99", AlarmLatencyLog.percentile(samples, 99));
+                    stats.putMap(AlarmLatencyLog.stageName(stage), stageStats);
+                }
+                promise.resolve(stats);
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading latency stats: " + e.getMessage());
+                promise.reject("LATENCY_ERROR", e.getMessage());
+            }
+        });
     }
 
     @ReactMethod
     public void scheduleAlarm(ReadableMap alarmData, Promise promise) {
-        Log.d(TAG, "scheduleAlarm called with data: " + alarmData.toString());
-        try {
-            long triggerTime = (long) alarmData.getDouble("triggerTime");
-            int alarmId = alarmData.getInt("alarmId");
-            // Optional: persist daily time for reschedule
-            int hourOfDay = alarmData.hasKey("hourOfDay") ? alarmData.getInt("hourOfDay") : -1;
-            int minuteOfHour = alarmData.hasKey("minuteOfHour") ? alarmData.getInt("minuteOfHour") : -1;
-            Log.d(TAG, "Parsed triggerTime: " + triggerTime + ", alarmId: " + alarmId);
-            
-            Intent intent = new Intent(reactContext, AlarmBroadcastReceiver.class);
-            intent.putExtra("ALARM_ID", alarmId);
-            intent.putExtra("TITLE", "Alarm " + alarmId);
-            intent.putExtra("RECURRING", false);
-            intent.putExtra("MONDAY", false);
-            intent.putExtra("TUESDAY", false);
-            intent.putExtra("WEDNESDAY", false);
-            intent.putExtra("THURSDAY", false);
-            intent.putExtra("FRIDAY", false);
-            intent.putExtra("SATURDAY", false);
-            intent.putExtra("SUNDAY", false);
-            
-            // Use appropriate PendingIntent flags based on alarm type
-            int flags = PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE;
-            
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                reactContext,
-                alarmId,
-                intent,
-                flags
-            );
+        runOrdered("scheduleAlarm", () -> {
+            Log.d(TAG, "scheduleAlarm called with data: " + alarmData.toString());
+            try {
+                Alarm alarm = parseAlarm(alarmData);
+                // The dispatcher persists the alarm and keeps only the earliest deadline registered
+                AlarmDispatcher.getInstance(reactContext).schedule(alarm);
+
+                Log.d(TAG, "Alarm scheduled (ID: " + alarm.getAlarmId() + ")");
+                // Persist latest alarm metadata for boot/reschedule
+                recordLastScheduled(alarmData);
+                promise.resolve(true);
             
-            // Choose the best alarm scheduling method based on Android version and requirements
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                // Android 12/31+: Use setAlarmClock to guarantee exact timing without special access
-                alarmManager.setAlarmClock(
-                    new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent),
-                    pendingIntent
-                );
-                Log.d(TAG, "Scheduled alarm using setAlarmClock (Android 12+)");
-            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                // Android 6.0+ (API 23–30): Exact while idle
-                alarmManager.setExactAndAllowWhileIdle(
-                    AlarmManager.RTC_WAKEUP,
-                    triggerTime,
-                    pendingIntent
-                );
-                Log.d(TAG, "Scheduled alarm using setExactAndAllowWhileIdle (Android 6.0–11)");
-            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                // Android 5.0–5.1: AlarmClock
-                alarmManager.setAlarmClock(
-                    new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent),
-                    pendingIntent
-                );
-                Log.d(TAG, "Scheduled alarm using setAlarmClock (Android 5.x)");
-            } else {
-                // Fallback for older Android versions
-                alarmManager.setExact(
-                    AlarmManager.RTC_WAKEUP,
-                    triggerTime,
-                    pendingIntent
-                );
-                Log.d(TAG, "Scheduled alarm using setExact (Legacy Android)");
+            } catch (Exception e) {
+                Log.e(TAG, "Error scheduling alarm: " + e.getMessage());
+                promise.reject("ALARM_ERROR", e.getMessage());
             }
-            
-            Log.d(TAG, "Alarm scheduled for: " + triggerTime + " (ID: " + alarmId + ")");
-            // Persist latest alarm metadata for boot/reschedule
-            SharedPreferences prefs = reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-            prefs.edit()
-                .putInt("lastAlarmId", alarmId)
-                .putLong("lastTriggerTime", triggerTime)
-                .putInt("dailyWakeHour", hourOfDay)
-                .putInt("dailyWakeMinute", minuteOfHour)
-                .apply();
-            promise.resolve(true);
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error scheduling alarm: " + e.getMessage());
-            promise.reject("ALARM_ERROR", e.getMessage());
-        }
+        });
     }
 
+    /**
+     * Schedules a batch of alarms (same fields as scheduleAlarm) with one Room
+     * transaction and one AlarmManager registration. Every item is validated first;
+     * resolves [{alarmId, success, error?}] in input order, invalid items are skipped.
+     */
     @ReactMethod
-    public void cancelAlarm(int alarmId, Promise promise) {
-        try {
-            Intent intent = new Intent(reactContext, AlarmBroadcastReceiver.class);
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                reactContext,
-                alarmId,
-                intent,
-                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            if (pendingIntent != null) {
-                alarmManager.cancel(pendingIntent);
-                pendingIntent.cancel();
-                Log.d(TAG, "Alarm cancelled: " + alarmId);
-            } else {
-                Log.d(TAG, "No pending intent found for alarm: " + alarmId);
+    public void scheduleAlarms(ReadableArray alarmsData, Promise promise) {
+        runOrdered("scheduleAlarms", () -> {
+            try {
+                List<Alarm> valid = new ArrayList<>();
+                String[] errors = new String[alarmsData.size()];
+                int lastValid = -1;
+                for (int i = 0; i < alarmsData.size(); i++) {
+                    try {
+                        valid.add(parseAlarm(alarmsData.getMap(i)));
+                        lastValid = i;
+                    } catch (Exception e) {
+                        errors[i] = e.getMessage() != null ? e.getMessage() : e.toString();
+                    }
+                }
+
+                if (!valid.isEmpty()) {
+                    AlarmDispatcher.getInstance(reactContext).scheduleAll(valid);
+                    recordLastScheduled(alarmsData.getMap(lastValid));
+                }
+                Log.d(TAG, "Scheduled " + valid.size() + "/" + alarmsData.size() + " alarm(s) in one batch");
+
+                WritableArray results = Arguments.createArray();
+                for (int i = 0; i < alarmsData.size(); i++) {
+                    ReadableMap item = alarmsData.getType(i) == ReadableType.Map ? alarmsData.getMap(i) : null;
+                    WritableMap result = Arguments.createMap();
+                    if (item != null && item.hasKey("alarmId") && item.getType("alarmId") == ReadableType.Number) {
+                        result.putInt("alarmId", item.getInt("alarmId"));
+                    } else {
+                        result.putNull("alarmId");
+                    }
+                    result.putBoolean("success", errors[i] == null);
+                    if (errors[i] != null) result.putString("error", errors[i]);
+                    results.pushMap(result);
+                }
+                promise.resolve(results);
+            } catch (Exception e) {
+                Log.e(TAG, "Error scheduling alarms: " + e.getMessage());
+                promise.reject("ALARM_ERROR", e.getMessage());
             }
-            
-            promise.resolve(true);
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error cancelling alarm: " + e.getMessage());
-            promise.reject("ALARM_ERROR", e.getMessage());
-        }
+        });
     }
 
+    /** Cancels a batch of alarm ids with a single update; resolves [{alarmId, success}] in input order. */
     @ReactMethod
-    public void scheduleOneOffTestAlarm(ReadableMap alarmData, Promise promise) {
-        Log.d(TAG, "scheduleOneOffTestAlarm called with data: " + alarmData.toString());
-        try {
-            long triggerTime = (long) alarmData.getDouble("triggerTime");
-            int alarmId = alarmData.hasKey("alarmId") ? alarmData.getInt("alarmId") : 9999;
-
-            Intent intent = new Intent(reactContext, AlarmBroadcastReceiver.class);
-            intent.putExtra("ALARM_ID", alarmId);
-            intent.putExtra("TITLE", "Test Alarm");
-            intent.putExtra("RECURRING", false);
-
-            int flags = PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE;
-
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                reactContext,
-                alarmId,
-                intent,
-                flags
-            );
-
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                alarmManager.setAlarmClock(
-                    new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent),
-                    pendingIntent
-                );
-            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(
-                    AlarmManager.RTC_WAKEUP,
-                    triggerTime,
-                    pendingIntent
-                );
-            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                alarmManager.setAlarmClock(
-                    new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent),
-                    pendingIntent
-                );
-            } else {
-                alarmManager.setExact(
-                    AlarmManager.RTC_WAKEUP,
-                    triggerTime,
-                    pendingIntent
-                );
+    public void cancelAlarms(ReadableArray alarmIds, Promise promise) {
+        runOrdered("cancelAlarms", () -> {
+            try {
+                List<Integer> ids = new ArrayList<>();
+                WritableArray results = Arguments.createArray();
+                for (int i = 0; i < alarmIds.size(); i++) {
+                    WritableMap result = Arguments.createMap();
+                    if (alarmIds.getType(i) == ReadableType.Number) {
+                        int alarmId = alarmIds.getInt(i);
+                        ids.add(alarmId);
+                        result.putInt("alarmId", alarmId);
+                        result.putBoolean("success", true);
+                    } else {
+                        result.putNull("alarmId");
+                        result.putBoolean("success", false);
+                        result.putString("error", "alarmId must be a number");
+                    }
+                    results.pushMap(result);
+                }
+                if (!ids.isEmpty()) {
+                    AlarmDispatcher.getInstance(reactContext).cancelAll(ids);
+                }
+                Log.d(TAG, "Cancelled " + ids.size() + " alarm(s) in one batch");
+                promise.resolve(results);
+            } catch (Exception e) {
+                Log.e(TAG, "Error cancelling alarms: " + e.getMessage());
+                promise.reject("ALARM_ERROR", e.getMessage());
             }
+        });
+    }
 
-            Log.d(TAG, "One-off test alarm scheduled for: " + triggerTime + " (ID: " + alarmId + ")");
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error scheduling one-off test alarm: " + e.getMessage());
-            promise.reject("ALARM_ERROR", e.getMessage());
+    /**
+     * Makes alarm_table mirror the JS alarm list. Each item is {alarmId, hour, minute,
+     * daysMask, isActive, title?, escalation?}; synced alarms always repeat, so daysMask
+     * names at least one day. Only the rows that differ are written, and only those
+     * alarms are re-queued.
+     * Resolves {inserted, updated, deleted}.
+     */
+    @ReactMethod
+    public void syncAlarms(ReadableArray alarmsData, Promise promise) {
+        runOrdered("syncAlarms", () -> {
+            try {
+                List<Alarm> incoming = new ArrayList<>();
+                for (int i = 0; i < alarmsData.size(); i++) {
+                    ReadableMap item = alarmsData.getMap(i);
+                    int alarmId = item.getInt("alarmId");
+                    int hour = item.getInt("hour");
+                    int minute = item.getInt("minute");
+                    int daysMask = item.hasKey("daysMask") ? item.getInt("daysMask") : NextTriggerCalculator.EVERY_DAY;
+                    if (alarmId <= 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                        || daysMask == 0 || (daysMask & ~NextTriggerCalculator.EVERY_DAY) != 0) {
+                        throw new IllegalArgumentException("Invalid alarm at index " + i);
+                    }
+                    boolean started = !item.hasKey("isActive") || item.getBoolean("isActive");
+                    String title = item.hasKey("title") && !item.isNull("title") ? item.getString("title") : "Alarm " + alarmId;
+                    // Synced alarms always repeat; a one-off would be re-armed by the next sync after firing
+                    Alarm alarm = new Alarm(hour, minute, title, started, true, daysMask);
+                    alarm.setAlarmId(alarmId);
+                    alarm.setEscalation(readEscalation(item));
+                    incoming.add(alarm);
+                }
+
+                int[] counts = AlarmDispatcher.getInstance(reactContext).sync(incoming);
+                Log.d(TAG, "syncAlarms: " + counts[0] + " inserted, " + counts[1] + " updated, " + counts[2] + " deleted");
+                WritableMap result = Arguments.createMap();
+                result.putInt("inserted", counts[0]);
+                result.putInt("updated", counts[1]);
+                result.putInt("deleted", counts[2]);
+                promise.resolve(result);
+            } catch (Exception e) {
+                Log.e(TAG, "Error syncing alarms: " + e.getMessage());
+                promise.reject("ALARM_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    // A daily hourOfDay/minuteOfHour makes a recurring alarm; otherwise it rings once at exactly triggerTime
+    private Alarm parseAlarm(ReadableMap alarmData) {
+        if (alarmData == null || !alarmData.hasKey("alarmId") || !alarmData.hasKey("triggerTime")) {
+            throw new IllegalArgumentException("alarmId and triggerTime are required");
+        }
+        long triggerTime = (long) alarmData.getDouble("triggerTime");
+        int alarmId = alarmData.getInt("alarmId");
+        boolean daily = alarmData.hasKey("hourOfDay") || alarmData.hasKey("minuteOfHour");
+        int hourOfDay = alarmData.hasKey("hourOfDay") ? alarmData.getInt("hourOfDay") : -1;
+        int minuteOfHour = alarmData.hasKey("minuteOfHour") ? alarmData.getInt("minuteOfHour") : -1;
+        int daysMask = alarmData.hasKey("daysMask") ? alarmData.getInt("daysMask") : NextTriggerCalculator.EVERY_DAY;
+        if (daily && (hourOfDay < 0 || hourOfDay > 23 || minuteOfHour < 0 || minuteOfHour > 59)) {
+            throw new IllegalArgumentException("Invalid time " + hourOfDay + ":" + minuteOfHour + " for alarm " + alarmId);
+        }
+        if ((daysMask & ~NextTriggerCalculator.EVERY_DAY) != 0) {
+            throw new IllegalArgumentException("Invalid daysMask for alarm " + alarmId);
         }
+        if (!daily && triggerTime <= 0) {
+            throw new IllegalArgumentException("Invalid triggerTime for alarm " + alarmId);
+        }
+
+        int hour = hourOfDay;
+        int minute = minuteOfHour;
+        if (!daily) {
+            // Kept for display; the one-off rings at fireAt, whatever day that is
+            int minuteOfDay = clock().calculator().localMinuteOfDay(triggerTime);
+            hour = minuteOfDay / 60;
+            minute = minuteOfDay % 60;
+        }
+        Alarm alarm = new Alarm(hour, minute, "Alarm " + alarmId, true, daily, daysMask);
+        alarm.setAlarmId(alarmId);
+        if (!daily) alarm.setFireAt(triggerTime);
+        alarm.setEscalation(readEscalation(alarmData));
+        return alarm;
+    }
+
+    // Optional "escalation" profile spec; validated here so a bad one fails the call, not the ring
+    private String readEscalation(ReadableMap alarmData) {
+        if (!alarmData.hasKey("escalation") || alarmData.isNull("escalation")) return null;
+        String spec = alarmData.getString("escalation");
+        return EscalationProfile.parse(spec).getSpec();
+    }
+
+    private Clock clock() {
+        return AlarmDispatcher.getInstance(reactContext).getClock();
+    }
+
+    private void recordLastScheduled(ReadableMap alarmData) {
+        NoozeState state = NoozeState.getInstance(reactContext);
+        state.setLastAlarmId(alarmData.getInt("alarmId"));
+        state.setLastTriggerTime((long) alarmData.getDouble("triggerTime"));
+        state.setDailyWakeTime(
+            alarmData.hasKey("hourOfDay") ? alarmData.getInt("hourOfDay") : -1,
+            alarmData.hasKey("minuteOfHour") ? alarmData.getInt("minuteOfHour") : -1);
     }
+
+    /** Earliest limit started alarms as [{alarmId, title, triggerAt}], read from the nextTriggerAt index. */
     @ReactMethod
-    public void clearAllAlarms(Promise promise) {
-        try {
-            SharedPreferences prefs = reactContext.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-            int lastId = prefs.getInt("lastAlarmId", -1);
-            if (lastId != -1) {
+    public void getNextAlarms(int limit, Promise promise) {
+        runOrdered("getNextAlarms", () -> {
+            try {
+                // Makes sure persisted triggers are current before they are read
+                AlarmDispatcher.getInstance(reactContext).rearm();
+                List<Alarm> next = AlarmDatabase.getInstance(reactContext).alarmDao().getNextDue(Math.max(1, limit));
+                WritableArray result = Arguments.createArray();
+                for (Alarm alarm : next) {
+                    WritableMap map = Arguments.createMap();
+                    map.putInt("alarmId", alarm.getAlarmId());
+                    map.putString("title", alarm.getTitle());
+                    map.putDouble("triggerAt", alarm.getNextTriggerAt());
+                    result.pushMap(map);
+                }
+                promise.resolve(result);
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading next alarms: " + e.getMessage());
+                promise.reject("NEXT_ALARMS_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void cancelAlarm(int alarmId, Promise promise) {
+        runOrdered("cancelAlarm", () -> {
+            try {
+                AlarmDispatcher.getInstance(reactContext).cancel(alarmId);
+                Log.d(TAG, "Alarm cancelled: " + alarmId);
+                promise.resolve(true);
+            
+            } catch (Exception e) {
+                Log.e(TAG, "Error cancelling alarm: " + e.getMessage());
+                promise.reject("ALARM_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void scheduleOneOffTestAlarm(ReadableMap alarmData, Promise promise) {
+        runOrdered("scheduleOneOffTestAlarm", () -> {
+            Log.d(TAG, "scheduleOneOffTestAlarm called with data: " + alarmData.toString());
+            try {
+                long triggerTime = (long) alarmData.getDouble("triggerTime");
+                int alarmId = alarmData.hasKey("alarmId") ? alarmData.getInt("alarmId") : 9999;
+
                 Intent intent = new Intent(reactContext, AlarmBroadcastReceiver.class);
+                intent.putExtra("ALARM_ID", alarmId);
+                intent.putExtra("TITLE", "Test Alarm");
+                intent.putExtra("RECURRING", false);
+                intent.putExtra("TRIGGER_AT", triggerTime);
+
+                int flags = PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE;
+
                 PendingIntent pendingIntent = PendingIntent.getBroadcast(
                     reactContext,
-                    lastId,
+                    alarmId,
                     intent,
-                    PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
+                    flags
                 );
-                if (pendingIntent != null) {
-                    alarmManager.cancel(pendingIntent);
-                    pendingIntent.cancel();
-                    Log.d(TAG, "Cleared last scheduled alarm: " + lastId);
+
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+                    alarmManager.setAlarmClock(
+                        new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent),
+                        pendingIntent
+                    );
+                } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                    alarmManager.setExactAndAllowWhileIdle(
+                        AlarmManager.RTC_WAKEUP,
+                        triggerTime,
+                        pendingIntent
+                    );
+                } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                    alarmManager.setAlarmClock(
+                        new AlarmManager.AlarmClockInfo(triggerTime, pendingIntent),
+                        pendingIntent
+                    );
+                } else {
+                    alarmManager.setExact(
+                        AlarmManager.RTC_WAKEUP,
+                        triggerTime,
+                        pendingIntent
+                    );
                 }
+
+                Log.d(TAG, "One-off test alarm scheduled for: " + triggerTime + " (ID: " + alarmId + ")");
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error scheduling one-off test alarm: " + e.getMessage());
+                promise.reject("ALARM_ERROR", e.getMessage());
             }
-            // Also stop any running alarm service and reset flags
+        });
+    }
+    @ReactMethod
+    public void clearAllAlarms(Promise promise) {
+        runOrdered("clearAllAlarms", () -> {
             try {
-                Intent serviceIntent = new Intent(reactContext, AlarmService.class);
-                reactContext.stopService(serviceIntent);
-            } catch (Exception ignored) {}
-            prefs.edit().putBoolean("isAlarmActive", false).apply();
-            promise.resolve(true);
-        } catch (Exception e) {
-            Log.e(TAG, "Error clearing alarms: " + e.getMessage());
-            promise.reject("ALARM_ERROR", e.getMessage());
-        }
+                AlarmDispatcher.getInstance(reactContext).clear();
+                Log.d(TAG, "Cleared all scheduled alarms");
+                // Also stop any running alarm service and reset flags
+                try {
+                    Intent serviceIntent = new Intent(reactContext, AlarmService.class);
+                    reactContext.stopService(serviceIntent);
+                } catch (Exception ignored) {}
+                NoozeState.getInstance(reactContext).setAlarmActive(false);
+                AlarmEventEmitter.emitAlarmCleared("cleared");
+                promise.resolve(true);
+            } catch (Exception e) {
+                Log.e(TAG, "Error clearing alarms: " + e.getMessage());
+                promise.reject("ALARM_ERROR", e.getMessage());
+            }
+        });
     }
 } 
\ No newline at end of file
@@ -1,30 +1,40 @@
 package com.nooze;
 
-import android.util.Log;
-import com.facebook.react.ReactPackage;
+import com.facebook.react.BaseReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.uimanager.ViewManager;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-public class AlarmPackage implements ReactPackage {
-    private static final String TAG = "AlarmPackage";
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Declares AlarmModule lazily on the bridge: nothing is constructed at React
+ * startup, getModule() runs the first time JS asks for "AlarmModule".
+ */
+public class AlarmPackage extends BaseReactPackage {
     @Override
-    public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        if (AlarmModule.NAME.equals(name)) {
+            return new AlarmModule(reactContext);
+        }
+        return null;
     }
 
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        Log.d(TAG, "AlarmPackage.createNativeModules called!");
-        List<NativeModule> modules = new ArrayList<>();
-        AlarmModule alarmModule = new AlarmModule(reactContext);
-        modules.add(alarmModule);
-        Log.d(TAG, "AlarmModule added to modules list: " + alarmModule.getName());
-        return modules;
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+            moduleInfos.put(AlarmModule.NAME, new ReactModuleInfo(
+                AlarmModule.NAME,
+                AlarmModule.class.getName(),
+                false, // canOverrideExistingModule
+                false, // needsEagerInit
+                false, // isCxxModule
+                false  // isTurboModule
+            ));
+            return moduleInfos;
+        };
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package com.nooze;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Indexed binary min-heap of (triggerAt, alarmId) pairs.
+ *
+ * Keeps one entry per alarm id: schedule() inserts or moves an alarm, remove()
+ * drops it, and the head is always the earliest deadline. Every operation is
+ * O(log n), which keeps rosters with thousands of alarms cheap to re-arm.
+ * Not thread-safe; AlarmDispatcher guards it.
+ */
+public class AlarmQueue {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] triggers = new long[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+    private final HashMap<Integer, Integer> positions = new HashMap<>();
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int alarmId) {
+        return positions.containsKey(alarmId);
+    }
+
+    /** Id of the earliest alarm; only valid when the queue is not empty. */
+    public int peekId() {
+        if (size == 0) throw new IllegalStateException("Queue is empty");
+        return ids[0];
+    }
+
+    /** Trigger of the earliest alarm; only valid when the queue is not empty. */
+    public long peekTrigger() {
+        if (size == 0) throw new IllegalStateException("Queue is empty");
+        return triggers[0];
+    }
+
+    /** Trigger currently queued for alarmId, or -1 when it is not queued. */
+    public long triggerOf(int alarmId) {
+        Integer position = positions.get(alarmId);
+        return position == null ? -1 : triggers[position];
+    }
+
+    /** Queues alarmId at triggerAt, moving it if it is already queued. */
+    public void schedule(int alarmId, long triggerAt) {
+        Integer position = positions.get(alarmId);
+        if (position != null) {
+            long previous = triggers[position];
+            triggers[position] = triggerAt;
+            if (triggerAt < previous) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            triggers = Arrays.copyOf(triggers, size * 2);
+        }
+        ids[size] = alarmId;
+        triggers[size] = triggerAt;
+        positions.put(alarmId, size);
+        siftUp(size++);
+    }
+
+    /** Removes and returns the earliest alarm id. */
+    public int poll() {
+        int head = peekId();
+        removeAt(0);
+        return head;
+    }
+
+    public boolean remove(int alarmId) {
+        Integer position = positions.get(alarmId);
+        if (position == null) return false;
+        removeAt(position);
+        return true;
+    }
+
+    public void clear() {
+        size = 0;
+        positions.clear();
+    }
+
+    private void removeAt(int position) {
+        positions.remove(ids[position]);
+        int last = --size;
+        if (position == last) return;
+        int movedId = ids[last];
+        place(movedId, triggers[last], position);
+        siftDown(position);
+        // The moved entry may belong above the hole rather than below it
+        if (ids[position] == movedId) {
+            siftUp(position);
+        }
+    }
+
+    private void siftUp(int position) {
+        int id = ids[position];
+        long trigger = triggers[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (triggers[parent] <= trigger) break;
+            move(parent, position);
+            position = parent;
+        }
+        place(id, trigger, position);
+    }
+
+    private void siftDown(int position) {
+        int id = ids[position];
+        long trigger = triggers[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+            int right = child + 1;
+            if (right < size && triggers[right] < triggers[child]) child = right;
+            if (trigger <= triggers[child]) break;
+            move(child, position);
+            position = child;
+        }
+        place(id, trigger, position);
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        triggers[to] = triggers[from];
+        positions.put(ids[to], to);
+    }
+
+    private void place(int id, long trigger, int position) {
+        ids[position] = id;
+        triggers[position] = trigger;
+        positions.put(id, position);
+    }
+}
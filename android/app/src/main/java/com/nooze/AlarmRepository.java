@@ -1,40 +1,154 @@
 package com.nooze;
 
 import android.app.Application;
+import android.util.Log;
+import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.LiveData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Alarm persistence for UI code. Mutations are collected for FLUSH_WINDOW_MS and
+ * committed together in one transaction, with repeated edits of the same alarm
+ * collapsed into their net effect, so a burst of UI edits costs a single fsync.
+ * Each mutation returns a future that completes when its window commits, or
+ * fails with the error that rolled it back. Reads return futures, run on the
+ * same thread after any pending flush, and so always see earlier writes.
+ */
 public class AlarmRepository {
+    private static final String TAG = "AlarmRepository";
+    private static final long FLUSH_WINDOW_MS = 50;
+
+    private static final int OP_INSERT = 0;
+    private static final int OP_UPDATE = 1;
+    private static final int OP_DELETE = 2;
+
+    private static class PendingWrite {
+        final int op;
+        final Alarm alarm;
+
+        PendingWrite(int op, Alarm alarm) {
+            this.op = op;
+            this.alarm = alarm;
+        }
+    }
+
     private AlarmDao alarmDao;
     private LiveData<List<Alarm>> allAlarms;
-    private ExecutorService executorService;
+    private ScheduledExecutorService executorService;
+
+    // Keyed by alarmId; inserts without an id yet cannot collide and are kept apart
+    private final Map<Integer, PendingWrite> pending = new LinkedHashMap<>();
+    private final List<Alarm> pendingNew = new ArrayList<>();
+    // Completed by the flush that commits the current window
+    private CompletableFuture<Void> windowCommitted;
 
     public AlarmRepository(Application application) {
-        AlarmDatabase database = AlarmDatabase.getInstance(application);
-        alarmDao = database.alarmDao();
-        allAlarms = alarmDao.getAllAlarms();
-        executorService = Executors.newSingleThreadExecutor();
+        this(AlarmDatabase.getInstance(application).alarmDao(), Executors.newSingleThreadScheduledExecutor());
+    }
+
+    @VisibleForTesting
+    AlarmRepository(AlarmDao alarmDao, ScheduledExecutorService executorService) {
+        this.alarmDao = alarmDao;
+        this.allAlarms = alarmDao.getAllAlarms();
+        this.executorService = executorService;
     }
 
-    public void insert(Alarm alarm) {
-        executorService.execute(() -> alarmDao.insert(alarm));
+    // Inserts are written with REPLACE, so an explicit id that is already in the table is overwritten
+    public CompletableFuture<Void> insert(Alarm alarm) {
+        synchronized (pending) {
+            if (alarm.getAlarmId() == 0) {
+                pendingNew.add(alarm);
+            } else {
+                pending.put(alarm.getAlarmId(), new PendingWrite(OP_INSERT, alarm));
+            }
+            return scheduleFlush();
+        }
     }
 
-    public void update(Alarm alarm) {
-        executorService.execute(() -> alarmDao.update(alarm));
+    public CompletableFuture<Void> update(Alarm alarm) {
+        synchronized (pending) {
+            PendingWrite previous = pending.get(alarm.getAlarmId());
+            if (previous != null && previous.op == OP_DELETE) {
+                // Updating a deleted row changes nothing; the delete stands
+                return scheduleFlush();
+            }
+            // An alarm inserted in this window is still an insert, just with the newer values
+            int op = previous != null && previous.op == OP_INSERT ? OP_INSERT : OP_UPDATE;
+            pending.put(alarm.getAlarmId(), new PendingWrite(op, alarm));
+            return scheduleFlush();
+        }
     }
 
-    public void delete(Alarm alarm) {
-        executorService.execute(() -> alarmDao.delete(alarm));
+    public CompletableFuture<Void> delete(Alarm alarm) {
+        synchronized (pending) {
+            // Even over a pending insert: that insert may have been replacing an existing row
+            pending.put(alarm.getAlarmId(), new PendingWrite(OP_DELETE, alarm));
+            return scheduleFlush();
+        }
     }
 
     public LiveData<List<Alarm>> getAllAlarms() {
         return allAlarms;
     }
 
-    public List<Alarm> getStartedAlarms() {
-        return alarmDao.getStartedAlarms();
+    public CompletableFuture<List<Alarm>> getStartedAlarms() {
+        return CompletableFuture.supplyAsync(() -> {
+            flush();
+            return alarmDao.getStartedAlarms();
+        }, executorService);
+    }
+
+    public CompletableFuture<Alarm> getById(int alarmId) {
+        return CompletableFuture.supplyAsync(() -> {
+            flush();
+            return alarmDao.getById(alarmId);
+        }, executorService);
+    }
+
+    // Called with pending held; returns the future of the window the write joined
+    private CompletableFuture<Void> scheduleFlush() {
+        if (windowCommitted == null) {
+            windowCommitted = new CompletableFuture<>();
+            executorService.schedule(this::flush, FLUSH_WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+        return windowCommitted;
+    }
+
+    private void flush() {
+        List<Alarm> inserts = new ArrayList<>();
+        List<Alarm> updates = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        CompletableFuture<Void> committed;
+        synchronized (pending) {
+            committed = windowCommitted;
+            windowCommitted = null;
+            if (committed == null) return;
+            for (Map.Entry<Integer, PendingWrite> entry : pending.entrySet()) {
+                PendingWrite write = entry.getValue();
+                if (write.op == OP_INSERT) inserts.add(write.alarm);
+                else if (write.op == OP_UPDATE) updates.add(write.alarm);
+                else deletes.add(entry.getKey());
+            }
+            inserts.addAll(pendingNew);
+            pending.clear();
+            pendingNew.clear();
+        }
+        try {
+            alarmDao.applyBatch(inserts, updates, deletes);
+            Log.d(TAG, "Flushed " + inserts.size() + " insert(s), " + updates.size()
+                + " update(s), " + deletes.size() + " delete(s) in one transaction");
+            committed.complete(null);
+        } catch (Exception e) {
+            // The whole window rolled back; every writer in it is told so
+            Log.e(TAG, "Error flushing alarm writes: " + e.getMessage());
+            committed.completeExceptionally(e);
+        }
     }
-} 
\ No newline at end of file
+}
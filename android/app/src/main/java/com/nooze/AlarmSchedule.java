@@ -0,0 +1,190 @@
+package com.nooze;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Platform-free core of AlarmDispatcher: the started alarms, their queued
+ * triggers and the single deadline handed to the system.
+ *
+ * Every trigger is resolved through the Clock, and the deadline goes to a
+ * Target rather than AlarmManager, so the same code runs on the device and in
+ * the JVM simulator. Not thread-safe; AlarmDispatcher guards it.
+ */
+public class AlarmSchedule<A extends AlarmSchedule.Entry> {
+    // Alarms due within this window of a firing ring together instead of re-arming a second wakeup
+    public static final long DUE_SLACK_MS = 60_000L;
+
+    /** The fields an alarm needs to be scheduled; implemented by Alarm. */
+    public interface Entry {
+        int getAlarmId();
+        int getHour();
+        int getMinute();
+        int getDaysMask();
+        boolean isRecurring();
+        // Absolute ring time of a one-off, or 0 to ring at the next hour:minute
+        long getFireAt();
+        long getNextTriggerAt();
+        // Stamped with every trigger the schedule queues, so it can be persisted alongside the row
+        void setNextTriggerAt(long triggerAt);
+
+        /**
+         * Next ring time strictly after nowMillis. A one-off with a fireAt rings exactly then,
+         * even once it has passed, so it stays due until it fires; other one-offs ring at the
+         * next hour:minute.
+         */
+        default long nextTriggerTime(Clock clock, long nowMillis) {
+            if (!isRecurring() && getFireAt() > 0) return getFireAt();
+            int days = isRecurring() ? getDaysMask() : NextTriggerCalculator.EVERY_DAY;
+            return clock.calculator().nextTrigger(getHour(), getMinute(), days, nowMillis);
+        }
+    }
+
+    /** Where the earliest deadline is registered: AlarmManager on device, a fake in the simulator. */
+    public interface Target<A> {
+        void setAlarmClock(long triggerAt, A alarm);
+        void cancel();
+    }
+
+    private final Clock clock;
+    private final AlarmQueue queue = new AlarmQueue();
+    private final HashMap<Integer, A> alarms = new HashMap<>();
+    private int armedAlarmId = -1;
+    private long armedTrigger = -1;
+
+    public AlarmSchedule(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public A get(int alarmId) {
+        return alarms.get(alarmId);
+    }
+
+    /** Trigger currently queued for alarmId, or -1 when it is not queued. */
+    public long triggerOf(int alarmId) {
+        return queue.triggerOf(alarmId);
+    }
+
+    /**
+     * Queues alarm at its next trigger, replacing any earlier entry with the same id.
+     * Replacing the armed alarm forgets the registration even if its trigger is unchanged,
+     * since the registered intent carries its title and escalation.
+     */
+    public void put(A alarm) {
+        putAt(alarm, clock.currentTimeMillis());
+    }
+
+    public void putAll(Collection<A> batch) {
+        putAll(batch, clock.currentTimeMillis());
+    }
+
+    /**
+     * Queues every alarm at its next trigger strictly after since. A process started
+     * by a firing loads with since just before the fired trigger, so the alarms that
+     * trigger was armed for are queued as due rather than for their next occurrence.
+     */
+    public void putAll(Collection<A> batch, long since) {
+        for (A alarm : batch) {
+            putAt(alarm, since);
+        }
+    }
+
+    public void remove(int alarmId) {
+        alarms.remove(alarmId);
+        queue.remove(alarmId);
+    }
+
+    public void clear() {
+        alarms.clear();
+        queue.clear();
+    }
+
+    /** Forgets what was registered, so the next arm() registers even an unchanged deadline. */
+    public void forgetArmed() {
+        armedAlarmId = -1;
+        armedTrigger = -1;
+    }
+
+    /**
+     * Recomputes every queued trigger against the clock's current time and zone and
+     * moves only the ones that changed into moved. Returns how many alarms were moved.
+     */
+    public int refresh(List<A> moved) {
+        long now = clock.currentTimeMillis();
+        int count = 0;
+        for (A alarm : alarms.values()) {
+            long fresh = alarm.nextTriggerTime(clock, now);
+            if (queue.triggerOf(alarm.getAlarmId()) != fresh) {
+                enqueue(alarm, fresh);
+                moved.add(alarm);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Pops every alarm due within DUE_SLACK_MS of now into fired, requeues the
+     * recurring ones and drops the one-offs. The fired deadline is spent, so the
+     * armed state is forgotten. Returns how many alarms fired.
+     */
+    public int advanceDue(List<A> fired) {
+        long now = clock.currentTimeMillis();
+        int count = 0;
+        while (!queue.isEmpty() && queue.peekTrigger() <= now + DUE_SLACK_MS) {
+            A alarm = alarms.get(queue.poll());
+            if (alarm == null) continue;
+            fired.add(alarm);
+            count++;
+            if (alarm.isRecurring()) {
+                enqueue(alarm, alarm.nextTriggerTime(clock, now + DUE_SLACK_MS));
+            } else {
+                alarms.remove(alarm.getAlarmId());
+            }
+        }
+        forgetArmed();
+        return count;
+    }
+
+    /**
+     * Registers the earliest deadline with target, or cancels it when nothing is
+     * queued. An unchanged deadline is not registered again. Returns true when
+     * target was touched.
+     */
+    public boolean arm(Target<A> target) {
+        if (queue.isEmpty()) {
+            target.cancel();
+            forgetArmed();
+            return true;
+        }
+        int alarmId = queue.peekId();
+        long triggerTime = queue.peekTrigger();
+        if (alarmId == armedAlarmId && triggerTime == armedTrigger) {
+            return false;
+        }
+        target.setAlarmClock(triggerTime, alarms.get(alarmId));
+        armedAlarmId = alarmId;
+        armedTrigger = triggerTime;
+        return true;
+    }
+
+    private void putAt(A alarm, long now) {
+        if (alarm.getAlarmId() == armedAlarmId) forgetArmed();
+        alarms.put(alarm.getAlarmId(), alarm);
+        enqueue(alarm, alarm.nextTriggerTime(clock, now));
+    }
+
+    private void enqueue(A alarm, long triggerAt) {
+        queue.schedule(alarm.getAlarmId(), triggerAt);
+        alarm.setNextTriggerAt(triggerAt);
+    }
+}
@@ -7,7 +7,6 @@ import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.content.pm.ServiceInfo;
 import android.media.AudioAttributes;
 import android.media.AudioManager;
@@ -25,61 +24,68 @@ public class AlarmService extends Service {
     private static final int NOTIFICATION_ID = 1;
     
     private MediaPlayer mediaPlayer;
+    private final AlarmAudioEngine audioEngine = new AlarmAudioEngine();
     private Vibrator vibrator;
     private boolean isVibrating = false;
     private AudioManager audioManager;
     private android.os.Handler reassertHandler;
     private android.os.Handler vibrationHandler;
-    private int vibrationPhase = 0; // 0: none, 1: 0-30s, 2: 30-60s, 3: 60s+
+    // Escalation for the ringing alarm; effects are compiled once when it starts
+    private EscalationProfile escalation;
+    private VibrationEffect[] escalationEffects;
+    private int escalationStep = -1;
+    private long escalationStartedAt;
+    private final Runnable escalationTick = new Runnable() {
+        @Override
+        public void run() {
+            applyEscalationStep(escalationStep + 1);
+        }
+    };
+    // Reassert backoff while no ring screen is visible: first retry soon, then
+    // progressively further apart so an ignored alarm does not spin the main looper
+    private static final long REASSERT_START_DELAY_MS = 12_000;
+    private static final long REASSERT_LOST_DELAY_MS = 3_000;
+    private static final long REASSERT_MAX_DELAY_MS = 60_000;
+    private long reassertDelayMs = REASSERT_LOST_DELAY_MS;
+    // Built once per ring and reused for every reassert
+    private Notification ringNotification;
     private final Runnable reassertRunnable = new Runnable() {
         @Override
         public void run() {
+            if (RingVisibilityTracker.isVisible() || ringNotification == null) return;
             try {
-                SharedPreferences prefs = getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-                boolean visible = prefs.getBoolean("ringActivityVisible", false);
-                if (!visible) {
-                    // Re-post full screen notification to bring RingActivity to front
-                    Notification notification = createNotification("Alarm");
-                    NotificationManager nm = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
-                    nm.notify(NOTIFICATION_ID, notification);
-                    Log.d(TAG, "Reasserted full-screen notification (RingActivity not visible)");
-                }
+                // Re-post full screen notification to bring RingActivity to front
+                NotificationManager nm = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+                nm.notify(NOTIFICATION_ID, ringNotification);
+                Log.d(TAG, "Reasserted full-screen notification; next check in " + reassertDelayMs + "ms");
             } catch (Exception e) {
                 Log.w(TAG, "Reassert failed: " + e.getMessage());
-            } finally {
-                // Schedule next check in ~12 seconds
-                if (reassertHandler != null) {
-                    reassertHandler.postDelayed(this, 12000);
-                }
             }
+            if (reassertHandler != null) {
+                reassertHandler.postDelayed(this, reassertDelayMs);
+                reassertDelayMs = Math.min(reassertDelayMs * 2, REASSERT_MAX_DELAY_MS);
+            }
+        }
+    };
+    private final RingVisibilityTracker.Listener visibilityListener = visible -> {
+        if (reassertHandler == null) return;
+        reassertHandler.removeCallbacks(reassertRunnable);
+        reassertDelayMs = REASSERT_LOST_DELAY_MS;
+        if (!visible) {
+            reassertHandler.postDelayed(reassertRunnable, REASSERT_LOST_DELAY_MS);
         }
     };
 
     @Override
     public void onCreate() {
         super.onCreate();
+        AlarmLatencyLog.recordStage(getFilesDir(), AlarmLatencyLog.STAGE_SERVICE_CREATE, AlarmDispatcher.clock());
         Log.d(TAG, "AlarmService created");
         
         // Initialize audio manager
         audioManager = (AudioManager) getSystemService(Context.AUDIO_SERVICE);
         
-        // Initialize media player with proper audio attributes
-        mediaPlayer = MediaPlayer.create(this, android.provider.Settings.System.DEFAULT_ALARM_ALERT_URI);
-        if (mediaPlayer != null) {
-            mediaPlayer.setLooping(true);
-            
-            // Set audio attributes for alarm
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                AudioAttributes audioAttributes = new AudioAttributes.Builder()
-                    .setUsage(AudioAttributes.USAGE_ALARM)
-                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
-                    .build();
-                mediaPlayer.setAudioAttributes(audioAttributes);
-            }
-            
-            // Set volume to maximum
-            mediaPlayer.setVolume(1.0f, 1.0f);
-        }
+        // Sound comes from the prewarmed PCM cache; MediaPlayer is only created as a fallback in startAlarm()
         
         // Initialize vibrator
         vibrator = (Vibrator) getSystemService(Context.VIBRATOR_SERVICE);
@@ -89,6 +95,7 @@ public class AlarmService extends Service {
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
+        AlarmLatencyLog.recordStage(getFilesDir(), AlarmLatencyLog.STAGE_SERVICE_START, AlarmDispatcher.clock());
         Log.d(TAG, "AlarmService started");
         
         String title = intent.getStringExtra("TITLE");
@@ -98,6 +105,7 @@ public class AlarmService extends Service {
         
         // Create notification
         Notification notification = createNotification(title);
+        ringNotification = notification;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
             // Align with manifest: mediaPlayback
             startForeground(NOTIFICATION_ID, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_MEDIA_PLAYBACK);
@@ -105,16 +113,31 @@ public class AlarmService extends Service {
             startForeground(NOTIFICATION_ID, notification);
         }
         
-        // Start alarm sound and vibration
+        // Start alarm sound and vibration. A second alarm firing while this one rings keeps the
+        // running profile: its compiled effects and step timing belong to it.
+        if (escalationStep < 0) {
+            try {
+                escalation = EscalationProfile.parse(intent.getStringExtra("ESCALATION"));
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Invalid escalation profile, using default: " + e.getMessage());
+                escalation = EscalationProfile.parse(null);
+            }
+        }
         startAlarm();
+        AlarmEventEmitter.emitAlarmFired(intent.getIntExtra("ALARM_ID", -1), title);
         
         // Post full-screen notification which launches RingActivity over lock
         NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
         notificationManager.notify(NOTIFICATION_ID, notification);
 
-        // Start periodic reassert while service is active
-        reassertHandler = new android.os.Handler(getMainLooper());
-        reassertHandler.postDelayed(reassertRunnable, 12000);
+        // Reassert only while no ring screen is visible; the tracker reports changes
+        if (reassertHandler == null) {
+            reassertHandler = new android.os.Handler(getMainLooper());
+        }
+        RingVisibilityTracker.setListener(visibilityListener);
+        reassertHandler.removeCallbacks(reassertRunnable);
+        reassertDelayMs = REASSERT_LOST_DELAY_MS;
+        reassertHandler.postDelayed(reassertRunnable, REASSERT_START_DELAY_MS);
         
         return START_NOT_STICKY;
     }
@@ -175,12 +198,23 @@ public class AlarmService extends Service {
             Log.d(TAG, "Audio focus request result: " + result);
         }
         
-        // Start media player
-        if (mediaPlayer != null && !mediaPlayer.isPlaying()) {
-            mediaPlayer.start();
-            Log.d(TAG, "Media player started");
+        // Start sound: cached PCM first, MediaPlayer if there is no usable cache yet
+        if (audioEngine.isPlaying() || (mediaPlayer != null && mediaPlayer.isPlaying())) {
+            Log.d(TAG, "Alarm sound already playing");
+        } else if (audioEngine.start(this)) {
+            AlarmLatencyLog.recordStage(getFilesDir(), AlarmLatencyLog.STAGE_AUDIO_START, AlarmDispatcher.clock());
+            Log.d(TAG, "PCM alarm sound started");
         } else {
-            Log.d(TAG, "Media player is null or already playing");
+            createFallbackPlayer();
+            if (mediaPlayer != null) {
+                mediaPlayer.start();
+                AlarmLatencyLog.recordStage(getFilesDir(), AlarmLatencyLog.STAGE_AUDIO_START, AlarmDispatcher.clock());
+                Log.d(TAG, "Media player started");
+            } else {
+                Log.d(TAG, "Media player is null");
+            }
+            // Have the cache ready for the next alarm
+            AlarmAudioEngine.prewarm(this);
         }
         
         // Start vibration
@@ -188,64 +222,85 @@ public class AlarmService extends Service {
         Log.d(TAG, "Alarm started - sound and vibration");
     }
 
+    private void createFallbackPlayer() {
+        // Initialize media player with proper audio attributes
+        mediaPlayer = MediaPlayer.create(this, android.provider.Settings.System.DEFAULT_ALARM_ALERT_URI);
+        if (mediaPlayer != null) {
+            mediaPlayer.setLooping(true);
+            
+            // Set audio attributes for alarm
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                AudioAttributes audioAttributes = new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_ALARM)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .build();
+                mediaPlayer.setAudioAttributes(audioAttributes);
+            }
+            
+            // Set volume to maximum
+            mediaPlayer.setVolume(1.0f, 1.0f);
+        }
+    }
+
     private void startVibration() {
         Log.d(TAG, "startVibration called, vibrator: " + (vibrator != null) + ", isVibrating: " + isVibrating);
-        if (vibrator != null && !isVibrating) {
-            isVibrating = true;
-
-            // Initialize handler and escalate phases over time
-            if (vibrationHandler == null) {
-                vibrationHandler = new android.os.Handler(getMainLooper());
+        // escalationStep also covers devices without a vibrator, where isVibrating stays false
+        if (escalationStep >= 0) {
+            Log.d(TAG, "Escalation already running");
+            return;
+        }
+        isVibrating = vibrator != null;
+        if (escalation == null) {
+            escalation = EscalationProfile.parse(null);
+        }
+        if (vibrator != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            boolean amplitudeControl = vibrator.hasAmplitudeControl();
+            escalationEffects = new VibrationEffect[escalation.stepCount()];
+            for (int step = 0; step < escalationEffects.length; step++) {
+                escalationEffects[step] = amplitudeControl
+                    ? VibrationEffect.createWaveform(escalation.timings(step), escalation.amplitudes(step), 0)
+                    : VibrationEffect.createWaveform(escalation.timings(step), 0);
             }
-            applyVibrationPhase(1);
-            // Escalate after 30s and 60s
-            vibrationHandler.postDelayed(new Runnable() { @Override public void run() { applyVibrationPhase(2); } }, 30_000);
-            vibrationHandler.postDelayed(new Runnable() { @Override public void run() { applyVibrationPhase(3); } }, 60_000);
-        } else {
-            Log.d(TAG, "Vibration not started - vibrator null or already vibrating");
         }
+        if (vibrationHandler == null) {
+            vibrationHandler = new android.os.Handler(getMainLooper());
+        }
+        escalationStartedAt = android.os.SystemClock.uptimeMillis();
+        applyEscalationStep(0);
     }
 
-    private void applyVibrationPhase(int phase) {
-        if (vibrator == null || !isVibrating) return;
-        if (phase < 1) phase = 1;
-        if (phase > 3) phase = 3;
-        vibrationPhase = phase;
+    // Applies one step of the profile and schedules the single tick for the next one
+    private void applyEscalationStep(int step) {
+        if (escalation == null || step >= escalation.stepCount()) return;
+        escalationStep = step;
 
-        long[] timings;
-        int[] amplitudes = null;
-        switch (phase) {
-            case 1: // moderate pulses
-                timings = new long[]{ 0, 200, 150, 200, 150, 260, 800 };
-                amplitudes = new int[]{ 0, 150, 0, 150, 0, 180, 0 };
-                break;
-            case 2: // stronger, shorter gaps
-                timings = new long[]{ 0, 280, 120, 280, 120, 320, 600 };
-                amplitudes = new int[]{ 0, 200, 0, 200, 0, 230, 0 };
-                break;
-            default: // phase 3 max intensity
-                timings = new long[]{ 0, 360, 100, 360, 100, 420, 500 };
-                amplitudes = new int[]{ 0, 255, 0, 255, 0, 255, 0 };
-                break;
+        float volume = escalation.volume(step);
+        audioEngine.setVolume(volume);
+        if (mediaPlayer != null) {
+            mediaPlayer.setVolume(volume, volume);
         }
 
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                if (vibrator.hasAmplitudeControl() && amplitudes != null) {
-                    vibrator.vibrate(VibrationEffect.createWaveform(timings, amplitudes, 0));
+        if (vibrator != null && isVibrating) {
+            try {
+                if (escalationEffects != null) {
+                    vibrator.vibrate(escalationEffects[step]);
                 } else {
-                    vibrator.vibrate(VibrationEffect.createWaveform(timings, 0));
+                    vibrator.vibrate(escalation.timings(step), 0);
                 }
-            } else {
-                vibrator.vibrate(timings, 0);
+            } catch (Exception e) {
+                Log.w(TAG, "Failed to apply escalation step " + step + ": " + e.getMessage());
             }
-            Log.d(TAG, "Applied vibration phase: " + phase);
-        } catch (Exception e) {
-            Log.w(TAG, "Failed to apply vibration phase " + phase + ": " + e.getMessage());
+        }
+        Log.d(TAG, "Applied escalation step: " + step);
+
+        if (step + 1 < escalation.stepCount() && vibrationHandler != null) {
+            vibrationHandler.postAtTime(escalationTick, escalationStartedAt + escalation.stepAt(step + 1));
         }
     }
 
     private void stopAlarm() {
+        audioEngine.stop();
+
         // Stop media player
         if (mediaPlayer != null && mediaPlayer.isPlaying()) {
             mediaPlayer.stop();
@@ -262,12 +317,16 @@ public class AlarmService extends Service {
             vibrationHandler.removeCallbacksAndMessages(null);
             vibrationHandler = null;
         }
+        escalationEffects = null;
+        escalationStep = -1;
         
         // Stop service
         stopForeground(true);
         stopSelf();
 
         // Stop reassert loop
+        RingVisibilityTracker.setListener(null);
+        ringNotification = null;
         if (reassertHandler != null) {
             reassertHandler.removeCallbacksAndMessages(null);
             reassertHandler = null;
@@ -279,6 +338,7 @@ public class AlarmService extends Service {
         super.onDestroy();
         Log.d(TAG, "AlarmService destroyed");
         stopAlarm();
+        AlarmEventEmitter.emitAlarmCleared("stopped");
     }
 
     @Override
@@ -0,0 +1,73 @@
+package com.nooze;
+
+import java.util.Random;
+
+/**
+ * Arithmetic problems as (left, operator, right) triples.
+ *
+ * Difficulty 1 is the original challenge: a sum of two numbers in 1..50.
+ * Difficulty 2 mixes sums and differences up to 99; difficulty 3 adds
+ * multiplication tables up to 12. Differences never go negative.
+ */
+public class ArithmeticChallenge implements ChallengeGenerator {
+    public static final int OP_ADD = 0;
+    public static final int OP_SUBTRACT = 1;
+    public static final int OP_MULTIPLY = 2;
+
+    public static final ArithmeticChallenge INSTANCE = new ArithmeticChallenge();
+
+    private static final String[] SYMBOLS = {" + ", " - ", " × "};
+
+    @Override
+    public int type() {
+        return TYPE_ARITHMETIC;
+    }
+
+    @Override
+    public void generate(Random random, int difficulty, int[] out, int offset) {
+        int op;
+        int left;
+        int right;
+        if (difficulty <= 1) {
+            op = OP_ADD;
+            left = random.nextInt(50) + 1;
+            right = random.nextInt(50) + 1;
+        } else if (difficulty == 2 || random.nextInt(3) != 0) {
+            op = random.nextBoolean() ? OP_ADD : OP_SUBTRACT;
+            left = random.nextInt(90) + 10;
+            right = random.nextInt(90) + 10;
+        } else {
+            op = OP_MULTIPLY;
+            left = random.nextInt(11) + 2;
+            right = random.nextInt(11) + 2;
+        }
+        // Larger operand first so sums read naturally and differences stay positive
+        if (left < right) {
+            int temp = left;
+            left = right;
+            right = temp;
+        }
+        out[offset] = left;
+        out[offset + 1] = op;
+        out[offset + 2] = right;
+    }
+
+    @Override
+    public int answer(int[] problems, int offset) {
+        int left = problems[offset];
+        int right = problems[offset + 2];
+        switch (problems[offset + 1]) {
+            case OP_SUBTRACT:
+                return left - right;
+            case OP_MULTIPLY:
+                return left * right;
+            default:
+                return left + right;
+        }
+    }
+
+    @Override
+    public String format(int[] problems, int offset) {
+        return problems[offset] + SYMBOLS[problems[offset + 1]] + problems[offset + 2] + " = ?";
+    }
+}
@@ -0,0 +1,52 @@
+package com.nooze;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-call counters for work handed to a serial executor: how long each call
+ * waited in the queue and how long it ran, in microseconds. Only aggregates are
+ * kept, so recording is allocation-free after a call name's first use.
+ */
+public class CallTimings {
+    public static class Stats {
+        public long count;
+        public long queuedTotalUs;
+        public long queuedMaxUs;
+        public long execTotalUs;
+        public long execMaxUs;
+    }
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    public synchronized void record(String name, long queuedNanos, long execNanos) {
+        Stats entry = stats.get(name);
+        if (entry == null) {
+            entry = new Stats();
+            stats.put(name, entry);
+        }
+        long queuedUs = queuedNanos / 1000;
+        long execUs = execNanos / 1000;
+        entry.count++;
+        entry.queuedTotalUs += queuedUs;
+        entry.queuedMaxUs = Math.max(entry.queuedMaxUs, queuedUs);
+        entry.execTotalUs += execUs;
+        entry.execMaxUs = Math.max(entry.execMaxUs, execUs);
+    }
+
+    /** Copy of the counters keyed by call name, in first-use order. */
+    public synchronized Map<String, Stats> snapshot() {
+        Map<String, Stats> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats source = entry.getValue();
+            Stats target = new Stats();
+            target.count = source.count;
+            target.queuedTotalUs = source.queuedTotalUs;
+            target.queuedMaxUs = source.queuedMaxUs;
+            target.execTotalUs = source.execTotalUs;
+            target.execMaxUs = source.execMaxUs;
+            copy.put(entry.getKey(), target);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,253 @@
+package com.nooze;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.inputmethod.InputMethodManager;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.TextView;
+import java.util.Random;
+
+/**
+ * The math challenge shown after the user taps dismiss on the ring screen.
+ *
+ * Binds to the activity_math_problem views that RingActivity inflates up front,
+ * so switching from ringing to the first question is a visibility change in the
+ * same window rather than a second activity launch. View lookups and the four
+ * question backgrounds are resolved once, in the constructor.
+ */
+public class ChallengeController {
+    private static final String TAG = "ChallengeController";
+    private static final int TOTAL_QUESTIONS = 4;
+    private static final String[] STEPS = {
+        "Sit up and place your feet on the floor.",
+        "Stand up and walk to the bathroom.",
+        "Splash your face or brush your teeth.",
+        "Drink water and open the curtains."
+    };
+
+    public interface Host {
+        /** The challenge was solved and its completion screen has been shown. */
+        void onChallengeFinished();
+    }
+
+    private final Activity activity;
+    private final Host host;
+    private final View root;
+    private final TextView questionText;
+    private final TextView stepHeader;
+    private final TextView progressText;
+    private final EditText answerInput;
+    private final Button submitButton;
+    private final Drawable[] backgrounds;
+
+    private int currentQuestion = 0;
+    private int correctAnswers = 0;
+    // Operand triples for this round, copied from the pre-generated ChallengePool
+    private final int[] problems = new int[TOTAL_QUESTIONS * 3];
+    private ChallengeGenerator generator = ArithmeticChallenge.INSTANCE;
+
+    public ChallengeController(Activity activity, View root, Host host) {
+        this.activity = activity;
+        this.root = root;
+        this.host = host;
+        questionText = root.findViewById(R.id.question_text);
+        stepHeader = root.findViewById(R.id.step_header);
+        progressText = root.findViewById(R.id.progress_text);
+        answerInput = root.findViewById(R.id.answer_input);
+        submitButton = root.findViewById(R.id.submit_button);
+        backgrounds = new Drawable[] {
+            activity.getDrawable(R.drawable.math_problem_bg_1),
+            activity.getDrawable(R.drawable.math_problem_bg_2),
+            activity.getDrawable(R.drawable.math_problem_bg_3),
+            activity.getDrawable(R.drawable.math_problem_bg_4)
+        };
+
+        // Submit button - check answer
+        submitButton.setOnClickListener(v -> checkAnswer());
+
+        // Show keyboard when input is focused
+        answerInput.setOnFocusChangeListener((v, hasFocus) -> {
+            if (hasFocus) {
+                InputMethodManager imm = (InputMethodManager) activity.getSystemService(Context.INPUT_METHOD_SERVICE);
+                imm.showSoftInput(answerInput, InputMethodManager.SHOW_IMPLICIT);
+            }
+        });
+
+        // Take the first round now so showing it needs no pool access
+        loadQuestions();
+    }
+
+    /** Shows the first question; call after making the challenge views visible. */
+    public void start() {
+        showQuestion(0);
+        answerInput.requestFocus();
+    }
+
+    private void loadQuestions() {
+        int taken = 0;
+        try {
+            ChallengePool pool = ChallengePool.getInstance(activity.getFilesDir());
+            if (pool.remaining() >= TOTAL_QUESTIONS) {
+                generator = ChallengeGenerator.forType(pool.type());
+                taken = pool.take(TOTAL_QUESTIONS, problems);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Challenge pool unavailable: " + e.getMessage());
+        }
+        if (taken < TOTAL_QUESTIONS) {
+            // Pool missing or drained; generate this round inline
+            Log.d(TAG, "Generating " + TOTAL_QUESTIONS + " questions inline");
+            generator = ArithmeticChallenge.INSTANCE;
+            Random random = new Random();
+            int difficulty = NoozeState.getInstance(activity).getChallengeDifficulty();
+            for (int i = 0; i < TOTAL_QUESTIONS; i++) {
+                generator.generate(random, difficulty, problems, i * 3);
+            }
+        }
+        // Top the pool back up off the main thread for the next round or alarm
+        AlarmDispatcher dispatcher = AlarmDispatcher.getInstance(activity);
+        dispatcher.runAsync(dispatcher::refillChallengePool);
+    }
+
+    private void showQuestion(int questionIndex) {
+        currentQuestion = questionIndex;
+
+        progressText.setText("Question " + (questionIndex + 1) + " of " + TOTAL_QUESTIONS);
+        stepHeader.setText(STEPS[questionIndex]);
+        questionText.setText(generator.format(problems, questionIndex * 3));
+        root.setBackground(backgrounds[questionIndex]);
+
+        // Clear input
+        answerInput.setText("");
+        answerInput.setEnabled(true);
+        submitButton.setVisibility(View.VISIBLE);
+    }
+
+    private void checkAnswer() {
+        String userAnswer = answerInput.getText().toString().trim();
+        
+        if (userAnswer.isEmpty()) {
+            answerInput.setError("Please enter an answer");
+            return;
+        }
+        
+        try {
+            int userAnswerInt = Integer.parseInt(userAnswer);
+            int correctAnswer = generator.answer(problems, currentQuestion * 3);
+            
+            if (userAnswerInt == correctAnswer) {
+                correctAnswers++;
+                Log.d(TAG, "Correct answer for question " + (currentQuestion + 1));
+                
+                // Go directly to next question or finish
+                if (currentQuestion < TOTAL_QUESTIONS - 1) {
+                    showQuestion(currentQuestion + 1);
+                } else {
+                    // All questions completed
+                    finishMathProblems();
+                }
+            } else {
+                Log.d(TAG, "Wrong answer for question " + (currentQuestion + 1));
+                answerInput.setError("Wrong answer. Try again!");
+                answerInput.setText("");
+                answerInput.requestFocus();
+            }
+        } catch (NumberFormatException e) {
+            answerInput.setError("Please enter a valid number");
+        }
+    }
+
+    private void finishMathProblems() {
+        Log.d(TAG, "Math problems completed! Correct answers: " + correctAnswers + "/" + TOTAL_QUESTIONS);
+        
+        if (correctAnswers == TOTAL_QUESTIONS) {
+            // All correct - stop alarm completely
+            Log.d(TAG, "All questions correct! Stopping alarm");
+            
+            // Stop any remaining alarm service
+            AlarmService.stopAlarm(activity);
+
+            // Journal the completion and make sure the next deadline is armed; the receiver
+            // already advanced it on trigger. JS drains the journal on resume.
+            AlarmDispatcher dispatcher = AlarmDispatcher.getInstance(activity);
+            final long completedAt = dispatcher.getClock().currentTimeMillis();
+            final int utcOffsetMinutes = dispatcher.getClock().utcOffsetMinutes(completedAt);
+            final long firedAt = NoozeState.getInstance(activity).getLastFiredTriggerAt();
+            final AlarmDatabase database = AlarmDatabase.getInstance(activity);
+            final CompletionDao completionDao = database.completionDao();
+            dispatcher.runAsync(() -> {
+                try {
+                    long id = completionDao.insert(new CompletionEvent(completedAt, utcOffsetMinutes));
+                    Log.d(TAG, "Journaled completion event " + id + " at " + completedAt);
+                    AlarmEventEmitter.emitMathCompleted(id, completedAt);
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to persist completion event: " + e.getMessage());
+                }
+                try {
+                    ChallengeLogEntry day = ChallengeLogEntry.completion(completedAt, utcOffsetMinutes, firedAt);
+                    ChallengeStats stats = database.challengeLogDao().record(day);
+                    // Queued for the cloud even if JS never runs before the next sync
+                    database.outboxDao().record(day.cloudKey(), day.toCloudJson(), completedAt);
+                    Log.d(TAG, "Logged challenge day; best streak " + stats.getBestStreak());
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to log challenge day: " + e.getMessage());
+                }
+                try {
+                    dispatcher.rearm();
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to arm next alarm: " + e.getMessage());
+                }
+            });
+            
+            // Hide keyboard first
+            InputMethodManager imm = (InputMethodManager) activity.getSystemService(Context.INPUT_METHOD_SERVICE);
+            if (imm != null) {
+                imm.hideSoftInputFromWindow(answerInput.getWindowToken(), 0);
+            }
+            
+            // Show simplified completion message
+            questionText.setText("WAKE UP!\nDON'T FOOL\nYOURSELF.");
+            questionText.setTextSize(48);
+            questionText.setTypeface(android.graphics.Typeface.DEFAULT_BOLD);
+            questionText.setGravity(android.view.Gravity.CENTER);
+            questionText.setTextColor(android.graphics.Color.WHITE);
+            
+            // Hide every other view, including the step header and bottom instruction text
+            if (root instanceof ViewGroup) {
+                ViewGroup viewGroup = (ViewGroup) root;
+                for (int i = 0; i < viewGroup.getChildCount(); i++) {
+                    View child = viewGroup.getChildAt(i);
+                    if (child != questionText) {
+                        child.setVisibility(View.GONE);
+                    }
+                }
+            }
+            
+            // Close after 5 seconds
+            questionText.postDelayed(host::onChallengeFinished, 5000);
+        } else {
+            // Not all correct - restart
+            Log.d(TAG, "Not all questions correct. Restarting...");
+            restartMathProblems();
+        }
+    }
+
+    private void restartMathProblems() {
+        Log.d(TAG, "Restarting math problems");
+        
+        // Reset progress
+        currentQuestion = 0;
+        correctAnswers = 0;
+        
+        // Fresh questions from the pool
+        loadQuestions();
+        
+        // Show first question
+        showQuestion(0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.nooze;
+
+import java.util.Random;
+
+/**
+ * A type of wake-up challenge. Problems are stored as int triples so a pool of
+ * them can be generated ahead of time and kept in a flat array or mapped file;
+ * rendering to text and checking answers happen only when one is shown.
+ */
+public interface ChallengeGenerator {
+    int TYPE_ARITHMETIC = 0;
+
+    int MIN_DIFFICULTY = 1;
+    int MAX_DIFFICULTY = 3;
+
+    /** Stable id stored alongside generated pools. */
+    int type();
+
+    /** Writes one problem at the given difficulty to out[offset..offset + 2]. */
+    void generate(Random random, int difficulty, int[] out, int offset);
+
+    /** Correct answer for the triple at problems[offset]. */
+    int answer(int[] problems, int offset);
+
+    /** Display text for the triple at problems[offset]. */
+    String format(int[] problems, int offset);
+
+    static ChallengeGenerator forType(int type) {
+        switch (type) {
+            case TYPE_ARITHMETIC:
+                return ArithmeticChallenge.INSTANCE;
+            default:
+                throw new IllegalArgumentException("Unknown challenge type " + type);
+        }
+    }
+}
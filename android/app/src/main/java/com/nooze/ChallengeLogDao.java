@@ -0,0 +1,62 @@
+package com.nooze;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.List;
+
+@Dao
+public interface ChallengeLogDao {
+    @Query("SELECT * FROM challenge_log WHERE dateKey = :dateKey")
+    ChallengeLogEntry getByDate(String dateKey);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ChallengeLogEntry entry);
+
+    // Inclusive range on the primary key; yyyy-MM-dd keys sort chronologically
+    @Query("SELECT * FROM challenge_log WHERE dateKey >= :fromKey AND dateKey <= :toKey ORDER BY dateKey ASC")
+    List<ChallengeLogEntry> getRange(String fromKey, String toKey);
+
+    @Query("SELECT * FROM challenge_log ORDER BY dateKey ASC")
+    List<ChallengeLogEntry> getAll();
+
+    @Query("SELECT * FROM challenge_stats WHERE id = " + ChallengeStats.SINGLETON_ID)
+    ChallengeStats getStats();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertStats(ChallengeStats stats);
+
+    // Writes one day and folds it into the aggregates; only edits of past days rescan the log
+    @Transaction
+    default ChallengeStats record(ChallengeLogEntry entry) {
+        ChallengeLogEntry previous = getByDate(entry.getDateKey());
+        if (previous != null && previous.isCompleted() && entry.isCompleted()
+            && entry.getWakeDelayMinutes() == null) {
+            // JS re-marks days the native completion path already timed; keep that measurement
+            entry.setWakeDelayMinutes(previous.getWakeDelayMinutes());
+            if (entry.getActualWakeAt() == 0) entry.setActualWakeAt(previous.getActualWakeAt());
+        }
+        upsert(entry);
+        ChallengeStats stats = getStats();
+        if (stats == null) stats = new ChallengeStats();
+        if (!stats.apply(previous, entry)) {
+            stats.rebuild(getAll());
+        }
+        upsertStats(stats);
+        return stats;
+    }
+
+    // Bulk import (legacy JSON, cloud merge): write every day, then aggregate once
+    @Transaction
+    default ChallengeStats recordAll(List<ChallengeLogEntry> entries) {
+        for (ChallengeLogEntry entry : entries) {
+            upsert(entry);
+        }
+        ChallengeStats stats = new ChallengeStats();
+        stats.rebuild(getAll());
+        upsertStats(stats);
+        return stats;
+    }
+}
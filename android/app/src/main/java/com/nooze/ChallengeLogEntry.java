@@ -0,0 +1,154 @@
+package com.nooze;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * One day of the wake-up challenge, keyed by its local "yyyy-MM-dd" date. A day
+ * is written once per status change, so the table only grows by a row a day;
+ * ChallengeStats holds the aggregates derived from it.
+ */
+@Entity(tableName = "challenge_log")
+public class ChallengeLogEntry {
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_COMPLETED = 1;
+    public static final int STATUS_MISSED = 2;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    // A ring further back than this belongs to another morning; the delay is left unknown
+    private static final long MAX_WAKE_DELAY_MS = 12 * 60 * 60 * 1000L;
+
+    @PrimaryKey
+    @NonNull
+    private String dateKey;
+    // Days since 1970-01-01 for dateKey, so streaks are integer arithmetic
+    private int epochDay;
+    private int status;
+    // Epoch millis the challenge was solved, 0 when unknown
+    private long actualWakeAt;
+    // Minutes from the ring to the solved challenge; null when the ring time is unknown
+    private Integer wakeDelayMinutes;
+    private boolean solvedMath;
+
+    public ChallengeLogEntry(@NonNull String dateKey, int epochDay, int status) {
+        this.dateKey = dateKey;
+        this.epochDay = epochDay;
+        this.status = status;
+    }
+
+    /** Entry for dateKey; throws IllegalArgumentException if it is not a valid yyyy-MM-dd date. */
+    public static ChallengeLogEntry forDate(String dateKey, int status) {
+        return new ChallengeLogEntry(dateKey, epochDayOf(dateKey), status);
+    }
+
+    /** Completed day for a challenge solved at completedAt, timed from the ring at firedAt (0 if unknown). */
+    public static ChallengeLogEntry completion(long completedAt, int utcOffsetMinutes, long firedAt) {
+        int epochDay = (int) Math.floorDiv(completedAt + utcOffsetMinutes * 60_000L, DAY_MS);
+        ChallengeLogEntry entry = new ChallengeLogEntry(dateKeyOf(epochDay), epochDay, STATUS_COMPLETED);
+        entry.setActualWakeAt(completedAt);
+        entry.setSolvedMath(true);
+        long delay = completedAt - firedAt;
+        if (firedAt > 0 && delay >= 0 && delay < MAX_WAKE_DELAY_MS) {
+            entry.setWakeDelayMinutes((int) (delay / 60_000L));
+        }
+        return entry;
+    }
+
+    /** Firestore field path of this day in the user document, used as its sync outbox key. */
+    public String cloudKey() {
+        return "challengeLogs." + dateKey;
+    }
+
+    /** The day in the JS ChallengeLogEntry shape that CloudSyncService stores. */
+    public String toCloudJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("dateKey", dateKey);
+        json.put("status", statusName(status));
+        if (actualWakeAt > 0) {
+            java.text.SimpleDateFormat iso = new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", java.util.Locale.US);
+            iso.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
+            json.put("actualWakeTime", iso.format(new java.util.Date(actualWakeAt)));
+        }
+        json.put("solvedMath", solvedMath);
+        return json.toString();
+    }
+
+    public boolean isCompleted() {
+        return status == STATUS_COMPLETED;
+    }
+
+    public static int statusOf(String name) {
+        switch (name) {
+            case "completed": return STATUS_COMPLETED;
+            case "missed": return STATUS_MISSED;
+            case "pending": return STATUS_PENDING;
+            default: throw new IllegalArgumentException("Unknown day status " + name);
+        }
+    }
+
+    public static String statusName(int status) {
+        switch (status) {
+            case STATUS_COMPLETED: return "completed";
+            case STATUS_MISSED: return "missed";
+            default: return "pending";
+        }
+    }
+
+    /** Days since the epoch for a "yyyy-MM-dd" key (proleptic Gregorian). */
+    public static int epochDayOf(String dateKey) {
+        if (dateKey == null || dateKey.length() != 10 || dateKey.charAt(4) != '-' || dateKey.charAt(7) != '-') {
+            throw new IllegalArgumentException("Date key must be yyyy-MM-dd: " + dateKey);
+        }
+        int year;
+        int month;
+        int day;
+        try {
+            year = Integer.parseInt(dateKey.substring(0, 4));
+            month = Integer.parseInt(dateKey.substring(5, 7));
+            day = Integer.parseInt(dateKey.substring(8, 10));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Date key must be yyyy-MM-dd: " + dateKey);
+        }
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            throw new IllegalArgumentException("Date key out of range: " + dateKey);
+        }
+        // Days-from-civil: count from March so the leap day ends the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /** "yyyy-MM-dd" key for a day count since the epoch. */
+    public static String dateKeyOf(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return String.format(java.util.Locale.US, "%04d-%02d-%02d", year, month, day);
+    }
+
+    @NonNull
+    public String getDateKey() { return dateKey; }
+    public void setDateKey(@NonNull String dateKey) { this.dateKey = dateKey; }
+    public int getEpochDay() { return epochDay; }
+    public void setEpochDay(int epochDay) { this.epochDay = epochDay; }
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    public long getActualWakeAt() { return actualWakeAt; }
+    public void setActualWakeAt(long actualWakeAt) { this.actualWakeAt = actualWakeAt; }
+    public Integer getWakeDelayMinutes() { return wakeDelayMinutes; }
+    public void setWakeDelayMinutes(Integer wakeDelayMinutes) { this.wakeDelayMinutes = wakeDelayMinutes; }
+    public boolean isSolvedMath() { return solvedMath; }
+    public void setSolvedMath(boolean solvedMath) { this.solvedMath = solvedMath; }
+}
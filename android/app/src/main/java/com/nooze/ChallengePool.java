@@ -0,0 +1,100 @@
+package com.nooze;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+/**
+ * Problems generated ahead of time, when an alarm is armed, so the challenge
+ * screen only copies a few int triples out of a mapped file when it opens.
+ * The read cursor lives in the file too, so problems are not repeated across
+ * process restarts; the pool is refilled once it runs low or the difficulty
+ * changes.
+ */
+public class ChallengePool {
+    private static final String FILE_NAME = "challenge_pool.bin";
+    private static final int MAGIC = 0x4E5A4350; // "NZCP"
+    public static final int CAPACITY = 64;
+    // Refill when fewer than this many problems are left (a couple of full rounds)
+    private static final int REFILL_BELOW = 16;
+
+    // Header: magic, type, difficulty, count, cursor
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_TYPE = 4;
+    private static final int OFFSET_DIFFICULTY = 8;
+    private static final int OFFSET_COUNT = 12;
+    private static final int OFFSET_CURSOR = 16;
+    private static final int HEADER_BYTES = 20;
+    private static final int PROBLEM_BYTES = 12;
+
+    private static ChallengePool instance;
+
+    private final MappedByteBuffer buffer;
+    private final Random random = new Random();
+
+    public static synchronized ChallengePool getInstance(File filesDir) throws IOException {
+        if (instance == null) {
+            instance = new ChallengePool(new File(filesDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    public ChallengePool(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) CAPACITY * PROBLEM_BYTES);
+        }
+    }
+
+    /** Refills the pool for generator at difficulty if it is empty, low, or for other settings. */
+    public synchronized boolean ensureFilled(ChallengeGenerator generator, int difficulty) {
+        if (buffer.getInt(OFFSET_MAGIC) == MAGIC
+            && buffer.getInt(OFFSET_TYPE) == generator.type()
+            && buffer.getInt(OFFSET_DIFFICULTY) == difficulty
+            && remaining() >= REFILL_BELOW) {
+            return false;
+        }
+        // Invalidate first so a crash mid-refill is not read as a valid pool
+        buffer.putInt(OFFSET_MAGIC, 0);
+        int[] problem = new int[3];
+        for (int i = 0; i < CAPACITY; i++) {
+            generator.generate(random, difficulty, problem, 0);
+            int offset = HEADER_BYTES + i * PROBLEM_BYTES;
+            buffer.putInt(offset, problem[0]);
+            buffer.putInt(offset + 4, problem[1]);
+            buffer.putInt(offset + 8, problem[2]);
+        }
+        buffer.putInt(OFFSET_TYPE, generator.type());
+        buffer.putInt(OFFSET_DIFFICULTY, difficulty);
+        buffer.putInt(OFFSET_COUNT, CAPACITY);
+        buffer.putInt(OFFSET_CURSOR, 0);
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        return true;
+    }
+
+    /** Type of the pooled problems, or -1 when the pool is empty. */
+    public synchronized int type() {
+        return buffer.getInt(OFFSET_MAGIC) == MAGIC ? buffer.getInt(OFFSET_TYPE) : -1;
+    }
+
+    public synchronized int remaining() {
+        if (buffer.getInt(OFFSET_MAGIC) != MAGIC) return 0;
+        return Math.max(0, buffer.getInt(OFFSET_COUNT) - buffer.getInt(OFFSET_CURSOR));
+    }
+
+    /** Copies up to count triples into out and consumes them; returns how many were copied. */
+    public synchronized int take(int count, int[] out) {
+        int taken = Math.min(count, remaining());
+        int cursor = buffer.getInt(OFFSET_CURSOR);
+        for (int i = 0; i < taken; i++) {
+            int offset = HEADER_BYTES + (cursor + i) * PROBLEM_BYTES;
+            out[i * 3] = buffer.getInt(offset);
+            out[i * 3 + 1] = buffer.getInt(offset + 4);
+            out[i * 3 + 2] = buffer.getInt(offset + 8);
+        }
+        buffer.putInt(OFFSET_CURSOR, cursor + taken);
+        return taken;
+    }
+}
@@ -0,0 +1,119 @@
+package com.nooze;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import java.util.List;
+
+/**
+ * Running aggregates over challenge_log, stored as a single row so reading them
+ * costs the same after a week or after years of history.
+ *
+ * apply() folds one day's upsert in O(1) as long as it only extends history
+ * (a new day, or a status change that cannot split an earlier streak). Edits that
+ * rewrite the past make it return false, and the caller rebuild()s from the log.
+ */
+@Entity(tableName = "challenge_stats")
+public class ChallengeStats {
+    public static final int SINGLETON_ID = 1;
+
+    @PrimaryKey
+    private int id = SINGLETON_ID;
+    private int completedDays;
+    private int missedDays;
+    // Consecutive completed days ending at runEndDay, the latest completed day (-1 when none)
+    private int runLength;
+    private int runEndDay = -1;
+    private int latestMissedDay = -1;
+    private int bestStreak;
+    private long wakeDelayTotalMinutes;
+    private int wakeDelaySamples;
+
+    /** Folds the change from previous (null for a new day) to entry; false means rebuild() is needed. */
+    public boolean apply(ChallengeLogEntry previous, ChallengeLogEntry entry) {
+        int day = entry.getEpochDay();
+        boolean wasCompleted = previous != null && previous.isCompleted();
+        boolean wasMissed = previous != null && previous.getStatus() == ChallengeLogEntry.STATUS_MISSED;
+        if (wasCompleted && !entry.isCompleted()) return false;
+        if (wasMissed && entry.getStatus() != ChallengeLogEntry.STATUS_MISSED) {
+            // Only the latest missed day is tracked, and only when it is completed over can it be kept
+            if (!entry.isCompleted() || day != latestMissedDay || day <= runEndDay) return false;
+        }
+        if (entry.isCompleted() && !wasCompleted && day < runEndDay) return false;
+
+        if (previous != null) count(previous, -1);
+        count(entry, 1);
+        if (entry.isCompleted() && !wasCompleted) {
+            runLength = runEndDay >= 0 && day == runEndDay + 1 ? runLength + 1 : 1;
+            runEndDay = day;
+            bestStreak = Math.max(bestStreak, runLength);
+        }
+        if (entry.getStatus() == ChallengeLogEntry.STATUS_MISSED) {
+            latestMissedDay = Math.max(latestMissedDay, day);
+        }
+        return true;
+    }
+
+    /** Recomputes everything from the whole log, which must be in ascending date order. */
+    public void rebuild(List<ChallengeLogEntry> ascending) {
+        completedDays = 0;
+        missedDays = 0;
+        runLength = 0;
+        runEndDay = -1;
+        latestMissedDay = -1;
+        bestStreak = 0;
+        wakeDelayTotalMinutes = 0;
+        wakeDelaySamples = 0;
+        for (ChallengeLogEntry entry : ascending) {
+            apply(null, entry);
+        }
+    }
+
+    /** Streak that is still alive on todayEpochDay: broken by a later missed day or a skipped day. */
+    public int currentStreak(int todayEpochDay) {
+        if (runEndDay < 0 || latestMissedDay > runEndDay || todayEpochDay - runEndDay > 1) return 0;
+        return runLength;
+    }
+
+    /** Completed share of days with a final status, 0..1. */
+    public double completionRate() {
+        int decided = completedDays + missedDays;
+        return decided == 0 ? 0 : (double) completedDays / decided;
+    }
+
+    /** Mean minutes from ring to solved challenge, or -1 with no samples. */
+    public double averageWakeDelayMinutes() {
+        return wakeDelaySamples == 0 ? -1 : (double) wakeDelayTotalMinutes / wakeDelaySamples;
+    }
+
+    private void count(ChallengeLogEntry entry, int sign) {
+        if (entry.isCompleted()) {
+            completedDays += sign;
+            if (entry.getWakeDelayMinutes() != null) {
+                wakeDelayTotalMinutes += sign * (long) entry.getWakeDelayMinutes();
+                wakeDelaySamples += sign;
+            }
+        } else if (entry.getStatus() == ChallengeLogEntry.STATUS_MISSED) {
+            missedDays += sign;
+        }
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public int getCompletedDays() { return completedDays; }
+    public void setCompletedDays(int completedDays) { this.completedDays = completedDays; }
+    public int getMissedDays() { return missedDays; }
+    public void setMissedDays(int missedDays) { this.missedDays = missedDays; }
+    public int getRunLength() { return runLength; }
+    public void setRunLength(int runLength) { this.runLength = runLength; }
+    public int getRunEndDay() { return runEndDay; }
+    public void setRunEndDay(int runEndDay) { this.runEndDay = runEndDay; }
+    public int getLatestMissedDay() { return latestMissedDay; }
+    public void setLatestMissedDay(int latestMissedDay) { this.latestMissedDay = latestMissedDay; }
+    public int getBestStreak() { return bestStreak; }
+    public void setBestStreak(int bestStreak) { this.bestStreak = bestStreak; }
+    public long getWakeDelayTotalMinutes() { return wakeDelayTotalMinutes; }
+    public void setWakeDelayTotalMinutes(long wakeDelayTotalMinutes) { this.wakeDelayTotalMinutes = wakeDelayTotalMinutes; }
+    public int getWakeDelaySamples() { return wakeDelaySamples; }
+    public void setWakeDelaySamples(int wakeDelaySamples) { this.wakeDelaySamples = wakeDelaySamples; }
+}
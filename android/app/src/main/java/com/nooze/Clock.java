@@ -0,0 +1,39 @@
+package com.nooze;
+
+import java.util.TimeZone;
+
+/**
+ * Source of "now" for every scheduling path.
+ *
+ * Production code uses SYSTEM through AlarmDispatcher.clock(), which tests can
+ * replace with AlarmDispatcher.setClock(); the JVM simulator in the benchmarks
+ * module drives a manual clock so a year of firings replays in seconds. calculator()
+ * returns the NextTriggerCalculator for the clock's current zone, so a zone
+ * change is seen by everything that resolves wall times through the clock.
+ */
+public interface Clock {
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public NextTriggerCalculator calculator() {
+            return NextTriggerCalculator.getDefault();
+        }
+    };
+
+    long currentTimeMillis();
+
+    NextTriggerCalculator calculator();
+
+    default TimeZone getZone() {
+        return calculator().getZone();
+    }
+
+    /** UTC offset at utcMillis in minutes, as stored with completion events. */
+    default int utcOffsetMinutes(long utcMillis) {
+        return getZone().getOffset(utcMillis) / 60_000;
+    }
+}
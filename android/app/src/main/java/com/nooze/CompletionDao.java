@@ -0,0 +1,19 @@
+package com.nooze;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface CompletionDao {
+    @Insert
+    long insert(CompletionEvent event);
+
+    @Query("SELECT * FROM completion_table WHERE id > :cursor ORDER BY id ASC")
+    List<CompletionEvent> getSince(long cursor);
+
+    // Events at or below the cursor JS passes back have been reconciled
+    @Query("DELETE FROM completion_table WHERE id <= :cursor")
+    void deleteUpTo(long cursor);
+}
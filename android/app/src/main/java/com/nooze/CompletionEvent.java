@@ -0,0 +1,47 @@
+package com.nooze;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * One solved wake-up challenge. Rows are only appended; the auto-generated id is
+ * monotonic and doubles as the drain cursor handed to JS.
+ */
+@Entity(tableName = "completion_table")
+public class CompletionEvent {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+    // Epoch millis; the date key is derived when JS reads the event
+    private long completedAt;
+    // Local UTC offset at completion, so the day is stable across later time zone changes
+    private int utcOffsetMinutes;
+
+    public CompletionEvent(long completedAt, int utcOffsetMinutes) {
+        this.completedAt = completedAt;
+        this.utcOffsetMinutes = utcOffsetMinutes;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(long completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public int getUtcOffsetMinutes() {
+        return utcOffsetMinutes;
+    }
+
+    public void setUtcOffsetMinutes(int utcOffsetMinutes) {
+        this.utcOffsetMinutes = utcOffsetMinutes;
+    }
+}
@@ -0,0 +1,106 @@
+package com.nooze;
+
+/**
+ * Declarative ramp of vibration and volume over the time an alarm rings.
+ *
+ * A profile is a list of steps separated by ';', each
+ * "atMs,volume,pulseMs,gapMs,lastPulseMs,restMs,amplitude,lastAmplitude":
+ * from atMs after the ring starts, the sound plays at volume (0..1) and the
+ * device repeats three pulses, the last one longer and stronger, then rests.
+ * Steps must start at 0 and be in ascending atMs order. Waveform arrays are
+ * built once at parse time, so applying a step allocates nothing.
+ */
+public class EscalationProfile {
+    // Moderate pulses, then stronger with shorter gaps at 30s, then full intensity at 60s
+    public static final String DEFAULT_SPEC =
+        "0,1.0,200,150,260,800,150,180;"
+        + "30000,1.0,280,120,320,600,200,230;"
+        + "60000,1.0,360,100,420,500,255,255";
+
+    private static volatile EscalationProfile defaultProfile;
+
+    private final String spec;
+    private final long[] stepAt;
+    private final float[] volumes;
+    private final long[][] timings;
+    private final int[][] amplitudes;
+
+    /** Parses spec; null or empty means the default profile. */
+    public static EscalationProfile parse(String spec) {
+        if (spec == null || spec.isEmpty() || spec.equals(DEFAULT_SPEC)) {
+            EscalationProfile profile = defaultProfile;
+            if (profile == null) {
+                profile = new EscalationProfile(DEFAULT_SPEC);
+                defaultProfile = profile;
+            }
+            return profile;
+        }
+        return new EscalationProfile(spec);
+    }
+
+    private EscalationProfile(String spec) {
+        String[] steps = spec.split(";");
+        this.spec = spec;
+        stepAt = new long[steps.length];
+        volumes = new float[steps.length];
+        timings = new long[steps.length][];
+        amplitudes = new int[steps.length][];
+        for (int i = 0; i < steps.length; i++) {
+            String[] fields = steps[i].trim().split(",");
+            if (fields.length != 8) {
+                throw new IllegalArgumentException("Escalation step " + i + " needs 8 fields: " + steps[i]);
+            }
+            try {
+                stepAt[i] = Long.parseLong(fields[0].trim());
+                volumes[i] = Float.parseFloat(fields[1].trim());
+                long pulse = Long.parseLong(fields[2].trim());
+                long gap = Long.parseLong(fields[3].trim());
+                long lastPulse = Long.parseLong(fields[4].trim());
+                long rest = Long.parseLong(fields[5].trim());
+                int amplitude = Integer.parseInt(fields[6].trim());
+                int lastAmplitude = Integer.parseInt(fields[7].trim());
+                if (pulse <= 0 || gap < 0 || lastPulse <= 0 || rest < 0
+                    || amplitude < 1 || amplitude > 255 || lastAmplitude < 1 || lastAmplitude > 255) {
+                    throw new IllegalArgumentException("Escalation step " + i + " is out of range: " + steps[i]);
+                }
+                timings[i] = new long[] {0, pulse, gap, pulse, gap, lastPulse, rest};
+                amplitudes[i] = new int[] {0, amplitude, 0, amplitude, 0, lastAmplitude, 0};
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Escalation step " + i + " is not numeric: " + steps[i]);
+            }
+            if (volumes[i] < 0f || volumes[i] > 1f) {
+                throw new IllegalArgumentException("Escalation volume must be within 0..1: " + steps[i]);
+            }
+            if (i == 0 ? stepAt[i] != 0 : stepAt[i] <= stepAt[i - 1]) {
+                throw new IllegalArgumentException("Escalation steps must start at 0 and ascend: " + spec);
+            }
+        }
+    }
+
+    public String getSpec() {
+        return spec;
+    }
+
+    public int stepCount() {
+        return stepAt.length;
+    }
+
+    /** Millis after the ring starts at which step begins. */
+    public long stepAt(int step) {
+        return stepAt[step];
+    }
+
+    public float volume(int step) {
+        return volumes[step];
+    }
+
+    /** Repeating waveform timings for step; shared, do not modify. */
+    public long[] timings(int step) {
+        return timings[step];
+    }
+
+    /** Amplitudes matching timings(step); shared, do not modify. */
+    public int[] amplitudes(int step) {
+        return amplitudes[step];
+    }
+}
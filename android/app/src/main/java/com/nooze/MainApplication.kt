@@ -17,9 +17,8 @@ class MainApplication : Application(), ReactApplication {
         override fun getPackages(): List<ReactPackage> =
             PackageList(this).packages.apply {
               // Packages that cannot be autolinked yet can be added manually here, for example:
-              android.util.Log.d("MainApplication", "Adding AlarmPackage to packages list")
+              // AlarmModule itself is only created once JS first uses it
               add(AlarmPackage())
-              android.util.Log.d("MainApplication", "AlarmPackage added successfully")
             }
 
         override fun getJSMainModuleName(): String = "index"
@@ -37,5 +36,7 @@ class MainApplication : Application(), ReactApplication {
     super.onCreate()
     android.util.Log.d("MainApplication", "MainApplication.onCreate() called")
     loadReactNative(this)
+    // Ring screen visibility is tracked from lifecycle callbacks for AlarmService
+    RingVisibilityTracker.register(this)
   }
 }
@@ -0,0 +1,126 @@
+package com.nooze;
+
+import java.util.TimeZone;
+
+/**
+ * Computes the next wall-clock HH:MM occurrence for every scheduling path
+ * (receivers, services, activities and the RN module).
+ *
+ * Works purely on epoch millis: the zone is resolved once and cached, and
+ * TimeZone.getOffset(long) is a lookup in the zone's transition table, so a
+ * call does not allocate. Seconds and millis are always zero. A wall time that
+ * falls in a DST gap fires at the same distance past the transition (02:30
+ * becomes 03:30); a wall time repeated by a DST overlap fires only at its first
+ * occurrence, so an alarm never rings twice on the same night.
+ */
+public final class NextTriggerCalculator {
+    public static final int MONDAY = 1;
+    public static final int TUESDAY = 1 << 1;
+    public static final int WEDNESDAY = 1 << 2;
+    public static final int THURSDAY = 1 << 3;
+    public static final int FRIDAY = 1 << 4;
+    public static final int SATURDAY = 1 << 5;
+    public static final int SUNDAY = 1 << 6;
+    public static final int EVERY_DAY = 0x7F;
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 60 * MINUTE_MS;
+    private static final long DAY_MS = 24 * HOUR_MS;
+    // Wider than any real-world DST shift, narrower than the gap between two transitions
+    private static final long TRANSITION_PROBE_MS = 3 * HOUR_MS;
+    // 1970-01-01 was a Thursday; shifts epoch days so that 0 == Monday
+    private static final int EPOCH_DAY_OF_WEEK_SHIFT = 3;
+
+    private static volatile NextTriggerCalculator defaultInstance;
+
+    private final TimeZone zone;
+
+    public NextTriggerCalculator(TimeZone zone) {
+        this.zone = zone;
+    }
+
+    /** Shared calculator for the device's default zone. */
+    public static NextTriggerCalculator getDefault() {
+        NextTriggerCalculator calculator = defaultInstance;
+        if (calculator == null) {
+            calculator = new NextTriggerCalculator(TimeZone.getDefault());
+            defaultInstance = calculator;
+        }
+        return calculator;
+    }
+
+    /** Drops the cached default zone; call when the device timezone changes. */
+    public static void invalidateDefault() {
+        defaultInstance = null;
+    }
+
+    public TimeZone getZone() {
+        return zone;
+    }
+
+    /** Next occurrence of hour:minute on any day, strictly after nowMillis. */
+    public long nextTrigger(int hour, int minute, long nowMillis) {
+        return nextTrigger(hour, minute, EVERY_DAY, nowMillis);
+    }
+
+    /**
+     * Next occurrence of hour:minute strictly after nowMillis on a day enabled in
+     * daysMask (MONDAY..SUNDAY bits). An empty mask means any day.
+     */
+    public long nextTrigger(int hour, int minute, int daysMask, long nowMillis) {
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            throw new IllegalArgumentException("Invalid time " + hour + ":" + minute);
+        }
+        int mask = daysMask & EVERY_DAY;
+        if (mask == 0) {
+            mask = EVERY_DAY;
+        }
+
+        long localDay = Math.floorDiv(nowMillis + zone.getOffset(nowMillis), DAY_MS);
+        long timeOfDay = hour * HOUR_MS + minute * MINUTE_MS;
+        int dayOfWeek = (int) Math.floorMod(localDay + EPOCH_DAY_OF_WEEK_SHIFT, 7L);
+
+        // Eight days so the same weekday next week is still reachable when today's slot has passed
+        for (int i = 0; i <= 7; i++) {
+            if ((mask & (1 << ((dayOfWeek + i) % 7))) == 0) {
+                continue;
+            }
+            long trigger = localToUtc((localDay + i) * DAY_MS + timeOfDay);
+            if (trigger > nowMillis) {
+                return trigger;
+            }
+        }
+        return localToUtc((localDay + 8) * DAY_MS + timeOfDay);
+    }
+
+    /** Day-of-week bit (MONDAY..SUNDAY) of the given instant in this calculator's zone. */
+    public int dayOfWeekBit(long utcMillis) {
+        long localDay = Math.floorDiv(utcMillis + zone.getOffset(utcMillis), DAY_MS);
+        return 1 << (int) Math.floorMod(localDay + EPOCH_DAY_OF_WEEK_SHIFT, 7L);
+    }
+
+    /** Wall-clock minute of day (0..1439) of the given instant in this calculator's zone. */
+    public int localMinuteOfDay(long utcMillis) {
+        return (int) (Math.floorMod(utcMillis + zone.getOffset(utcMillis), DAY_MS) / MINUTE_MS);
+    }
+
+    private long localToUtc(long localMillis) {
+        long guess = localMillis - zone.getOffset(localMillis - zone.getRawOffset());
+        int offsetBefore = zone.getOffset(guess - TRANSITION_PROBE_MS);
+        int offsetAfter = zone.getOffset(guess + TRANSITION_PROBE_MS);
+        if (offsetBefore == offsetAfter) {
+            return localMillis - offsetBefore;
+        }
+        // A transition lies near this wall time: prefer the earliest consistent instant
+        long early = localMillis - offsetBefore;
+        if (zone.getOffset(early) == offsetBefore) {
+            return early;
+        }
+        long late = localMillis - offsetAfter;
+        if (zone.getOffset(late) == offsetAfter) {
+            return late;
+        }
+        // Wall time skipped by the transition
+        return early;
+    }
+}
@@ -0,0 +1,175 @@
+package com.nooze;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Native alarm state that used to live in NoozePrefs.
+ *
+ * Every value sits in a fixed slot of a small memory-mapped file, so reads are
+ * memory loads and a write is a single store into the page cache: toggling
+ * ringActivityVisible while the alarm rings no longer rewrites an XML file.
+ * The old prefs keys are copied over once, the first time the file is created.
+ */
+public class NoozeState {
+    private static final String TAG = "NoozeState";
+    private static final String FILE_NAME = "nooze_state.bin";
+    private static final int MAGIC = 0x4E5A5354; // "NZST"
+
+    // Slot offsets; append new slots at the end and grow SIZE
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_RING_VISIBLE = 4;
+    private static final int OFFSET_ALARM_ACTIVE = 5;
+    private static final int OFFSET_LEGACY_MIGRATED = 6;
+    private static final int OFFSET_LAST_ALARM_ID = 8;
+    private static final int OFFSET_DAILY_WAKE_HOUR = 12;
+    private static final int OFFSET_DAILY_WAKE_MINUTE = 16;
+    private static final int OFFSET_LAST_TRIGGER_TIME = 24;
+    private static final int OFFSET_LAST_BOOT_RESTORE_MS = 32;
+    private static final int OFFSET_CHALLENGE_DIFFICULTY = 40;
+    private static final int OFFSET_LAST_FIRED_TRIGGER = 48;
+    private static final int SIZE = 64;
+
+    private static NoozeState instance;
+
+    private final MappedByteBuffer buffer;
+
+    public static synchronized NoozeState getInstance(Context context) {
+        if (instance == null) {
+            try {
+                instance = new NoozeState(context.getApplicationContext());
+            } catch (IOException e) {
+                // Without a state file nothing native can be tracked; surface it loudly
+                throw new IllegalStateException("Unable to open " + FILE_NAME, e);
+            }
+        }
+        return instance;
+    }
+
+    private NoozeState(Context context) throws IOException {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+        }
+        if (buffer.getInt(OFFSET_MAGIC) != MAGIC) {
+            migrateFromPrefs(context);
+        }
+    }
+
+    public synchronized boolean isRingActivityVisible() {
+        return buffer.get(OFFSET_RING_VISIBLE) != 0;
+    }
+
+    public synchronized void setRingActivityVisible(boolean visible) {
+        buffer.put(OFFSET_RING_VISIBLE, (byte) (visible ? 1 : 0));
+    }
+
+    public synchronized boolean isAlarmActive() {
+        return buffer.get(OFFSET_ALARM_ACTIVE) != 0;
+    }
+
+    public synchronized void setAlarmActive(boolean active) {
+        buffer.put(OFFSET_ALARM_ACTIVE, (byte) (active ? 1 : 0));
+    }
+
+    public synchronized boolean isLegacyAlarmMigrated() {
+        return buffer.get(OFFSET_LEGACY_MIGRATED) != 0;
+    }
+
+    public synchronized void setLegacyAlarmMigrated(boolean migrated) {
+        buffer.put(OFFSET_LEGACY_MIGRATED, (byte) (migrated ? 1 : 0));
+    }
+
+    public synchronized int getLastAlarmId() {
+        return buffer.getInt(OFFSET_LAST_ALARM_ID);
+    }
+
+    public synchronized void setLastAlarmId(int alarmId) {
+        buffer.putInt(OFFSET_LAST_ALARM_ID, alarmId);
+    }
+
+    /** Hour of the JS daily alarm, or -1 when none was set. */
+    public synchronized int getDailyWakeHour() {
+        return buffer.getInt(OFFSET_DAILY_WAKE_HOUR);
+    }
+
+    /** Minute of the JS daily alarm, or -1 when none was set. */
+    public synchronized int getDailyWakeMinute() {
+        return buffer.getInt(OFFSET_DAILY_WAKE_MINUTE);
+    }
+
+    public synchronized void setDailyWakeTime(int hour, int minute) {
+        buffer.putInt(OFFSET_DAILY_WAKE_HOUR, hour);
+        buffer.putInt(OFFSET_DAILY_WAKE_MINUTE, minute);
+    }
+
+    public synchronized long getLastTriggerTime() {
+        return buffer.getLong(OFFSET_LAST_TRIGGER_TIME);
+    }
+
+    public synchronized void setLastTriggerTime(long triggerTime) {
+        buffer.putLong(OFFSET_LAST_TRIGGER_TIME, triggerTime);
+    }
+
+    public synchronized long getLastBootRestoreMs() {
+        return buffer.getLong(OFFSET_LAST_BOOT_RESTORE_MS);
+    }
+
+    public synchronized void setLastBootRestoreMs(long elapsed) {
+        buffer.putLong(OFFSET_LAST_BOOT_RESTORE_MS, elapsed);
+    }
+
+    /** ChallengeGenerator difficulty for pooled problems, MIN_DIFFICULTY..MAX_DIFFICULTY. */
+    public synchronized int getChallengeDifficulty() {
+        // Files written before this slot existed read 0
+        return Math.max(ChallengeGenerator.MIN_DIFFICULTY, buffer.getInt(OFFSET_CHALLENGE_DIFFICULTY));
+    }
+
+    public synchronized void setChallengeDifficulty(int difficulty) {
+        buffer.putInt(OFFSET_CHALLENGE_DIFFICULTY, difficulty);
+    }
+
+    /** Scheduled time of the alarm that last rang, for wake-delay stats; 0 when unknown. */
+    public synchronized long getLastFiredTriggerAt() {
+        return buffer.getLong(OFFSET_LAST_FIRED_TRIGGER);
+    }
+
+    public synchronized void setLastFiredTriggerAt(long triggerAt) {
+        buffer.putLong(OFFSET_LAST_FIRED_TRIGGER, triggerAt);
+    }
+
+    private void migrateFromPrefs(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
+        buffer.put(OFFSET_RING_VISIBLE, (byte) 0);
+        buffer.put(OFFSET_ALARM_ACTIVE, (byte) (prefs.getBoolean("isAlarmActive", false) ? 1 : 0));
+        buffer.put(OFFSET_LEGACY_MIGRATED, (byte) (prefs.getBoolean("legacyAlarmMigrated", false) ? 1 : 0));
+        buffer.putInt(OFFSET_LAST_ALARM_ID, prefs.getInt("lastAlarmId", 1001));
+        buffer.putInt(OFFSET_DAILY_WAKE_HOUR, prefs.getInt("dailyWakeHour", -1));
+        buffer.putInt(OFFSET_DAILY_WAKE_MINUTE, prefs.getInt("dailyWakeMinute", -1));
+        buffer.putLong(OFFSET_LAST_TRIGGER_TIME, prefs.getLong("lastTriggerTime", 0L));
+        buffer.putLong(OFFSET_LAST_BOOT_RESTORE_MS, prefs.getLong("lastBootRestoreMs", 0L));
+        buffer.putInt(OFFSET_CHALLENGE_DIFFICULTY, ChallengeGenerator.MIN_DIFFICULTY);
+        // Magic last: a crash mid-migration simply migrates again on the next start
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        buffer.force();
+
+        prefs.edit()
+            .remove("ringActivityVisible")
+            .remove("isAlarmActive")
+            .remove("legacyAlarmMigrated")
+            .remove("lastAlarmId")
+            .remove("dailyWakeHour")
+            .remove("dailyWakeMinute")
+            .remove("lastTriggerTime")
+            .remove("lastBootRestoreMs")
+            .apply();
+        Log.d(TAG, "Migrated native state out of NoozePrefs");
+    }
+}
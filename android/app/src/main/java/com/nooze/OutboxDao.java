@@ -0,0 +1,36 @@
+package com.nooze;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.List;
+
+@Dao
+public interface OutboxDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(OutboxEntry entry);
+
+    @Query("SELECT COALESCE(MAX(version), 0) FROM sync_outbox")
+    long getMaxVersion();
+
+    // Folds a mutation into the entity's pending row; returns the version it was given
+    @Transaction
+    default long record(String entityKey, String payload, long now) {
+        long version = getMaxVersion() + 1;
+        upsert(new OutboxEntry(entityKey, payload, version, now));
+        return version;
+    }
+
+    // Oldest pending entities first, at most limit of them
+    @Query("SELECT * FROM sync_outbox ORDER BY version ASC LIMIT :limit")
+    List<OutboxEntry> take(int limit);
+
+    // A newer record of the same entity survives the ack of the version that was pushed
+    @Query("DELETE FROM sync_outbox WHERE entityKey = :entityKey AND version = :version")
+    int ack(String entityKey, long version);
+
+    @Query("SELECT COUNT(*) FROM sync_outbox")
+    int size();
+}
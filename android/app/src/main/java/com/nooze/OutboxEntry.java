@@ -0,0 +1,40 @@
+package com.nooze;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Latest unsynced state of one cloud entity. entityKey is the Firestore field path
+ * ("alarms", "challengeLogs.2026-10-17", ...), so recording the same entity again
+ * replaces the row: an offline stretch costs one row per entity, not per edit.
+ */
+@Entity(tableName = "sync_outbox", indices = {@Index("version")})
+public class OutboxEntry {
+    @PrimaryKey
+    @NonNull
+    private String entityKey;
+    // JSON value to write; null deletes the field
+    private String payload;
+    // Increases with every record; an ack only removes the version that was pushed
+    private long version;
+    private long updatedAt;
+
+    public OutboxEntry(@NonNull String entityKey, String payload, long version, long updatedAt) {
+        this.entityKey = entityKey;
+        this.payload = payload;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    @NonNull
+    public String getEntityKey() { return entityKey; }
+    public void setEntityKey(@NonNull String entityKey) { this.entityKey = entityKey; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
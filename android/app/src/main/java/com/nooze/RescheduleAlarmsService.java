@@ -6,12 +6,10 @@ import android.app.NotificationManager;
 import android.app.Service;
 import android.content.Intent;
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.os.Build;
 import android.os.IBinder;
 import android.util.Log;
 import androidx.core.app.NotificationCompat;
-import java.util.Calendar;
 
 public class RescheduleAlarmsService extends Service {
     private static final String TAG = "RescheduleAlarmsService";
@@ -33,12 +31,13 @@ public class RescheduleAlarmsService extends Service {
         Notification notification = createNotification();
         startForeground(NOTIFICATION_ID, notification);
         
-        // Reschedule alarms
-        rescheduleAlarms();
-        
-        // Stop service after rescheduling
-        stopForeground(true);
-        stopSelf();
+        // Reschedule alarms on the dispatcher thread (Room cannot be read here),
+        // then stop the service once that is done
+        AlarmDispatcher.getInstance(this).runAsync(() -> {
+            rescheduleAlarms();
+            stopForeground(true);
+            stopSelf();
+        });
         
         return START_NOT_STICKY;
     }
@@ -68,47 +67,12 @@ public class RescheduleAlarmsService extends Service {
 
     private void rescheduleAlarms() {
         try {
-            SharedPreferences prefs = getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-            int hour = prefs.getInt("dailyWakeHour", -1);
-            int minute = prefs.getInt("dailyWakeMinute", -1);
-            if (hour >= 0 && minute >= 0) {
-                long triggerTime = computeNextTrigger(hour, minute);
-                Log.d(TAG, "Rescheduling single daily alarm at " + hour + ":" + minute + " -> " + triggerTime);
-                // Reuse AlarmModule’s scheduling logic via AlarmManager directly
-                android.app.AlarmManager alarmManager = (android.app.AlarmManager) getSystemService(Context.ALARM_SERVICE);
-                android.content.Intent intent = new android.content.Intent(this, AlarmBroadcastReceiver.class);
-                int alarmId = prefs.getInt("lastAlarmId", 1001);
-                android.app.PendingIntent pendingIntent = android.app.PendingIntent.getBroadcast(this, alarmId, intent, android.app.PendingIntent.FLAG_UPDATE_CURRENT | android.app.PendingIntent.FLAG_IMMUTABLE);
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                    alarmManager.setAlarmClock(new android.app.AlarmManager.AlarmClockInfo(triggerTime, pendingIntent), pendingIntent);
-                } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                    alarmManager.setExactAndAllowWhileIdle(android.app.AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
-                } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                    alarmManager.setAlarmClock(new android.app.AlarmManager.AlarmClockInfo(triggerTime, pendingIntent), pendingIntent);
-                } else {
-                    alarmManager.setExact(android.app.AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
-                }
-            } else {
-                Log.d(TAG, "No persisted daily time; nothing to reschedule");
-            }
+            AlarmDispatcher.getInstance(this).reload();
         } catch (Exception e) {
             Log.e(TAG, "Error rescheduling alarms: " + e.getMessage());
         }
     }
 
-    private long computeNextTrigger(int hour, int minute) {
-        Calendar cal = Calendar.getInstance();
-        Calendar now = Calendar.getInstance();
-        cal.set(Calendar.HOUR_OF_DAY, hour);
-        cal.set(Calendar.MINUTE, minute);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        if (cal.getTimeInMillis() <= now.getTimeInMillis()) {
-            cal.add(Calendar.DAY_OF_YEAR, 1);
-        }
-        return cal.getTimeInMillis();
-    }
-
     @Override
     public void onDestroy() {
         super.onDestroy();
@@ -1,26 +1,34 @@
 package com.nooze;
 
 import android.app.Activity;
-import android.content.Context;
-import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
-import android.content.SharedPreferences;
 import org.json.JSONArray;
 import java.text.SimpleDateFormat;
 import java.util.Locale;
 
-public class RingActivity extends Activity {
+/**
+ * Lock-screen alarm UI. Ringing and the math challenge are two states of this one
+ * activity: activity_ring_flow inflates both, and dismissing just swaps which one
+ * is visible, so the first question appears in the next frame.
+ */
+public class RingActivity extends Activity implements ChallengeController.Host {
     private static final String TAG = "RingActivity";
 
+    private View ringState;
+    private View challengeState;
+    private ChallengeController challenge;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        AlarmLatencyLog.recordStage(getFilesDir(), AlarmLatencyLog.STAGE_RING_CREATE, AlarmDispatcher.clock());
         Log.d(TAG, "RingActivity onCreate called");
-        setContentView(R.layout.activity_ring);
+        setContentView(R.layout.activity_ring_flow);
         // Ensure screen turns on and shows over lock for older APIs
         getWindow().addFlags(
             android.view.WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED |
@@ -39,6 +47,10 @@ public class RingActivity extends Activity {
     }
 
     private void setupUI() {
+        ringState = findViewById(R.id.ring_state);
+        challengeState = findViewById(R.id.math_problem_layout);
+        challenge = new ChallengeController(this, challengeState, this);
+
         TextView titleText = findViewById(R.id.alarm_title);
         Button dismissButton = findViewById(R.id.dismiss_button);
 
@@ -55,50 +67,30 @@ public class RingActivity extends Activity {
     }
 
     private void dismissAlarm() {
-        Log.d(TAG, "dismissAlarm called - launching math problem");
-        
-        // Launch math problem activity
-        Intent mathIntent = new Intent(this, MathProblemActivity.class);
-        mathIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
-        startActivity(mathIntent);
-        
-        // Close this activity
-        finish();
-    }
+        Log.d(TAG, "dismissAlarm called - showing math problem");
+        final long dismissedAt = System.nanoTime();
 
-    @Override
-    public void onBackPressed() {
-        // Prevent back button from dismissing alarm
-        // User must explicitly choose dismiss to solve math problem
-    }
+        ringState.setVisibility(View.GONE);
+        challengeState.setVisibility(View.VISIBLE);
+        challenge.start();
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        try {
-            SharedPreferences prefs = getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-            prefs.edit().putBoolean("ringActivityVisible", true).apply();
-            Log.d(TAG, "RingActivity visible=true");
-        } catch (Exception ignored) {}
+        // The next frame lays out and draws the first question; the one after it starts once that is done
+        Choreographer.getInstance().postFrameCallback(swapFrameNanos ->
+            Choreographer.getInstance().postFrameCallback(nextFrameNanos ->
+                Log.d(TAG, "Dismiss to first question drawn in " + (nextFrameNanos - dismissedAt) / 1_000_000
+                    + "ms (" + ((nextFrameNanos - swapFrameNanos) > 20_000_000L ? "janky" : "single")
+                    + " frame, " + (nextFrameNanos - swapFrameNanos) / 1_000_000 + "ms)")));
     }
 
     @Override
-    protected void onPause() {
-        super.onPause();
-        try {
-            SharedPreferences prefs = getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-            prefs.edit().putBoolean("ringActivityVisible", false).apply();
-            Log.d(TAG, "RingActivity visible=false");
-        } catch (Exception ignored) {}
+    public void onChallengeFinished() {
+        finish();
     }
 
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        try {
-            SharedPreferences prefs = getSharedPreferences("NoozePrefs", Context.MODE_PRIVATE);
-            prefs.edit().putBoolean("ringActivityVisible", false).apply();
-        } catch (Exception ignored) {}
+    public void onBackPressed() {
+        // Prevent back button from dismissing alarm
+        // User must explicitly choose dismiss to solve math problem
     }
 
     // Build a shuffled bag of indices 0..n-1 (Fisher–Yates)
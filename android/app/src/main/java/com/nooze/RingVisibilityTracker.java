@@ -0,0 +1,73 @@
+package com.nooze;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+/**
+ * Tracks in-process whether the ringing screen (RingActivity, which also hosts
+ * the math challenge) is in the foreground, from activity lifecycle callbacks rather than a stored
+ * flag. AlarmService listens for changes instead of polling; the value is still
+ * mirrored to NoozeState and pushed to JS.
+ *
+ * Callbacks and listener notifications all happen on the main thread.
+ */
+public class RingVisibilityTracker implements Application.ActivityLifecycleCallbacks {
+    public interface Listener {
+        void onRingVisibilityChanged(boolean visible);
+    }
+
+    private static int resumedRingScreens;
+    private static Listener listener;
+
+    public static void register(Application application) {
+        application.registerActivityLifecycleCallbacks(new RingVisibilityTracker());
+    }
+
+    public static boolean isVisible() {
+        return resumedRingScreens > 0;
+    }
+
+    public static void setListener(Listener newListener) {
+        listener = newListener;
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+        if (!isRingScreen(activity)) return;
+        resumedRingScreens++;
+        if (resumedRingScreens == 1) changed(activity, true);
+    }
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+        if (!isRingScreen(activity) || resumedRingScreens == 0) return;
+        resumedRingScreens--;
+        if (resumedRingScreens == 0) changed(activity, false);
+    }
+
+    private static boolean isRingScreen(Activity activity) {
+        return activity instanceof RingActivity;
+    }
+
+    private static void changed(Activity activity, boolean visible) {
+        NoozeState.getInstance(activity).setRingActivityVisible(visible);
+        AlarmEventEmitter.emitRingVisibility(visible);
+        if (listener != null) listener.onRingVisibilityChanged(visible);
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+    @Override
+    public void onActivityStarted(Activity activity) {}
+
+    @Override
+    public void onActivityStopped(Activity activity) {}
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {}
+}
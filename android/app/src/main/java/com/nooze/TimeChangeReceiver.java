@@ -0,0 +1,47 @@
+package com.nooze;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Re-aims queued alarms after the wall clock or time zone changes, and after an
+ * app update (which drops the process and its AlarmManager registration state).
+ * AlarmDispatcher only moves alarms whose trigger actually changed, and
+ * re-registers with AlarmManager only if the earliest deadline moved.
+ */
+public class TimeChangeReceiver extends BroadcastReceiver {
+    private static final String TAG = "TimeChangeReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (intent == null) return;
+        final String action = intent.getAction();
+        if (!Intent.ACTION_TIME_CHANGED.equals(action)
+            && !Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+            && !Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
+            return;
+        }
+        if (Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            // The cached calculator still holds the old zone
+            NextTriggerCalculator.invalidateDefault();
+        }
+
+        final PendingResult result = goAsync();
+        AlarmDispatcher dispatcher = AlarmDispatcher.getInstance(context);
+        dispatcher.runAsync(() -> {
+            try {
+                long startedAt = SystemClock.elapsedRealtime();
+                int moved = dispatcher.refreshTriggers();
+                Log.d(TAG, action + ": moved " + moved + " alarm(s) in "
+                    + (SystemClock.elapsedRealtime() - startedAt) + "ms");
+            } catch (Exception e) {
+                Log.e(TAG, "Error refreshing alarms after " + action + ": " + e.getMessage());
+            } finally {
+                result.finish();
+            }
+        });
+    }
+}
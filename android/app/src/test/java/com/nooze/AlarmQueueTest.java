@@ -0,0 +1,94 @@
+package com.nooze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class AlarmQueueTest {
+    @Test
+    public void removingRootPromotesNextEarliest() {
+        AlarmQueue queue = queueOf(new long[] {500, 100, 300, 200, 400});
+        assertEquals(2, queue.peekId());
+
+        assertTrue(queue.remove(2));
+        assertEquals(4, queue.peekId());
+        assertEquals(200, queue.peekTrigger());
+        assertEquals(-1, queue.triggerOf(2));
+        assertFalse(queue.remove(2));
+        assertDrainsInOrder(queue, 4, 3, 5, 1);
+    }
+
+    @Test
+    public void reschedulingRootLaterSinksIt() {
+        AlarmQueue queue = queueOf(new long[] {500, 100, 300, 200, 400});
+        queue.schedule(2, 450);
+
+        assertEquals(4, queue.peekId());
+        assertEquals(5, queue.size());
+        assertEquals(450, queue.triggerOf(2));
+        assertDrainsInOrder(queue, 4, 3, 5, 2, 1);
+    }
+
+    @Test
+    public void reschedulingLeafEarlierMakesItRoot() {
+        AlarmQueue queue = queueOf(new long[] {500, 100, 300, 200, 400});
+        queue.schedule(1, 50);
+
+        assertEquals(1, queue.peekId());
+        assertDrainsInOrder(queue, 1, 2, 4, 3, 5);
+    }
+
+    @Test
+    public void randomOperationsMatchSortedMap() {
+        Random random = new Random(42);
+        AlarmQueue queue = new AlarmQueue();
+        Map<Integer, Long> expected = new TreeMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            int alarmId = 1 + random.nextInt(64);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(alarmId) != null, queue.remove(alarmId));
+            } else {
+                // Distinct triggers so the earliest id is unambiguous
+                long trigger = random.nextInt(1_000_000) * 64L + alarmId;
+                queue.schedule(alarmId, trigger);
+                expected.put(alarmId, trigger);
+            }
+            assertEquals(expected.size(), queue.size());
+            if (!expected.isEmpty()) {
+                Map.Entry<Integer, Long> earliest = earliest(expected);
+                assertEquals((int) earliest.getKey(), queue.peekId());
+                assertEquals((long) earliest.getValue(), queue.peekTrigger());
+            }
+        }
+    }
+
+    // Alarm ids are 1..n in the order of triggers
+    private static AlarmQueue queueOf(long[] triggers) {
+        AlarmQueue queue = new AlarmQueue();
+        for (int i = 0; i < triggers.length; i++) {
+            queue.schedule(i + 1, triggers[i]);
+        }
+        return queue;
+    }
+
+    private static void assertDrainsInOrder(AlarmQueue queue, int... alarmIds) {
+        for (int alarmId : alarmIds) {
+            assertEquals(alarmId, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    private static Map.Entry<Integer, Long> earliest(Map<Integer, Long> triggers) {
+        Map.Entry<Integer, Long> earliest = null;
+        for (Map.Entry<Integer, Long> entry : triggers.entrySet()) {
+            if (earliest == null || entry.getValue() < earliest.getValue()) earliest = entry;
+        }
+        return earliest;
+    }
+}
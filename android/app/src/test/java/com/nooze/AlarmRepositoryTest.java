@@ -0,0 +1,162 @@
+package com.nooze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import androidx.lifecycle.LiveData;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class AlarmRepositoryTest {
+    private final FakeAlarmDao dao = new FakeAlarmDao();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final AlarmRepository repository = new AlarmRepository(dao, executor);
+
+    @After
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void deleteThenInsertInOneWindowReplacesRow() throws Exception {
+        dao.rows.put(5, alarm(5, 7));
+
+        repository.delete(alarm(5, 7));
+        await(repository.insert(alarm(5, 8)));
+
+        assertEquals(1, dao.batches);
+        assertEquals(8, dao.rows.get(5).getHour());
+    }
+
+    @Test
+    public void insertUpdateDeleteOfNewAlarmLeavesNoRow() throws Exception {
+        repository.insert(alarm(6, 7));
+        repository.update(alarm(6, 8));
+        await(repository.delete(alarm(6, 8)));
+
+        assertFalse(dao.rows.containsKey(6));
+    }
+
+    @Test
+    public void insertUpdateDeleteOverExistingRowDeletesIt() throws Exception {
+        dao.rows.put(5, alarm(5, 7));
+
+        repository.insert(alarm(5, 8));
+        repository.update(alarm(5, 9));
+        await(repository.delete(alarm(5, 9)));
+
+        assertFalse(dao.rows.containsKey(5));
+    }
+
+    @Test
+    public void updateAfterDeleteKeepsDelete() throws Exception {
+        dao.rows.put(5, alarm(5, 7));
+
+        repository.delete(alarm(5, 7));
+        await(repository.update(alarm(5, 8)));
+
+        assertFalse(dao.rows.containsKey(5));
+    }
+
+    @Test
+    public void failedFlushFailsEveryWriteInWindow() throws Exception {
+        IllegalStateException diskFull = new IllegalStateException("disk full");
+        dao.failure = diskFull;
+
+        CompletableFuture<Void> first = repository.insert(alarm(5, 7));
+        CompletableFuture<Void> second = repository.update(alarm(6, 8));
+        assertSame(first, second);
+        try {
+            await(first);
+            fail("flush failure was swallowed");
+        } catch (ExecutionException e) {
+            assertSame(diskFull, e.getCause());
+        }
+
+        // The next window is unaffected
+        dao.failure = null;
+        await(repository.insert(alarm(5, 7)));
+        assertTrue(dao.rows.containsKey(5));
+    }
+
+    private static Alarm alarm(int alarmId, int hour) {
+        Alarm alarm = new Alarm(hour, 0, "Alarm", true, true, NextTriggerCalculator.EVERY_DAY);
+        alarm.setAlarmId(alarmId);
+        return alarm;
+    }
+
+    private static void await(CompletableFuture<Void> committed) throws Exception {
+        committed.get(5, TimeUnit.SECONDS);
+    }
+
+    // Just the table operations a repository flush uses
+    private static final class FakeAlarmDao implements AlarmDao {
+        final Map<Integer, Alarm> rows = new TreeMap<>();
+        RuntimeException failure;
+        int batches;
+
+        @Override
+        public void applyBatch(List<Alarm> inserts, List<Alarm> updates, List<Integer> deletes) {
+            if (failure != null) throw failure;
+            batches++;
+            AlarmDao.super.applyBatch(inserts, updates, deletes);
+        }
+
+        @Override
+        public void upsertAll(List<Alarm> alarms) {
+            for (Alarm alarm : alarms) rows.put(alarm.getAlarmId(), alarm);
+        }
+
+        @Override
+        public void updateAll(List<Alarm> alarms) {
+            for (Alarm alarm : alarms) rows.replace(alarm.getAlarmId(), alarm);
+        }
+
+        @Override
+        public void deleteByIds(List<Integer> alarmIds) {
+            rows.keySet().removeAll(alarmIds);
+        }
+
+        @Override
+        public LiveData<List<Alarm>> getAllAlarms() {
+            return null;
+        }
+
+        @Override
+        public List<Alarm> getAll() {
+            return new ArrayList<>(rows.values());
+        }
+
+        @Override
+        public Alarm getById(int alarmId) {
+            return rows.get(alarmId);
+        }
+
+        @Override public void insert(Alarm alarm) { throw new UnsupportedOperationException(); }
+        @Override public void update(Alarm alarm) { throw new UnsupportedOperationException(); }
+        @Override public void delete(Alarm alarm) { throw new UnsupportedOperationException(); }
+        @Override public void upsert(Alarm alarm) { throw new UnsupportedOperationException(); }
+        @Override public void setStarted(int alarmId, boolean started) { throw new UnsupportedOperationException(); }
+        @Override public void setStartedAll(List<Integer> alarmIds, boolean started) { throw new UnsupportedOperationException(); }
+        @Override public void setNextTriggerAt(int alarmId, long triggerAt) { throw new UnsupportedOperationException(); }
+        @Override public void deleteAll() { throw new UnsupportedOperationException(); }
+        @Override public List<Alarm> getStartedAlarms() { throw new UnsupportedOperationException(); }
+        @Override public List<Alarm> getNextDue(int limit) { throw new UnsupportedOperationException(); }
+        @Override public List<Alarm> getDueBetween(long fromMillis, long toMillis) { throw new UnsupportedOperationException(); }
+        @Override public List<Alarm> getStartedAlarmsForDay(int dayBit) { throw new UnsupportedOperationException(); }
+    }
+}
@@ -0,0 +1,155 @@
+package com.nooze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+public class AlarmScheduleTest {
+    private static final long MINUTE_MS = 60_000L;
+
+    private final TestClock clock = new TestClock(millis("2026-10-14T08:00:00-04:00"));
+
+    @Test
+    public void oneOffRingsAtItsAbsoluteTime() {
+        long threeDaysOut = millis("2026-10-17T06:30:00-04:00");
+        Alarm alarm = oneOff(1, threeDaysOut);
+        AlarmSchedule<Alarm> schedule = new AlarmSchedule<>(clock);
+        schedule.put(alarm);
+
+        assertEquals(threeDaysOut, schedule.triggerOf(1));
+        assertEquals(threeDaysOut, alarm.getNextTriggerAt());
+        // A refresh (zone change, time set) leaves an absolute one-off where it is
+        assertEquals(0, schedule.refresh(new ArrayList<>()));
+    }
+
+    @Test
+    public void oneOffFiringIntoFreshProcessIsRetired() {
+        Alarm alarm = new Alarm(7, 0, "Once", true, false, NextTriggerCalculator.EVERY_DAY);
+        alarm.setAlarmId(2);
+        AlarmSchedule<Alarm> armed = new AlarmSchedule<>(clock);
+        armed.put(alarm);
+        long triggerAt = armed.triggerOf(2);
+
+        // The process died after arming; the firing reloads the still-started row
+        clock.now = triggerAt + 5 * MINUTE_MS;
+        AlarmSchedule<Alarm> reloaded = new AlarmSchedule<>(clock);
+        reloaded.putAll(Collections.singletonList(alarm), Math.min(clock.now, triggerAt - 1));
+        List<Alarm> fired = new ArrayList<>();
+        reloaded.advanceDue(fired);
+
+        assertEquals(Collections.singletonList(alarm), fired);
+        assertEquals(0, reloaded.size());
+    }
+
+    @Test
+    public void recurringAlarmFiringIntoFreshProcessAdvancesOneDay() {
+        Alarm alarm = new Alarm(9, 0, "Daily", true, true, NextTriggerCalculator.EVERY_DAY);
+        alarm.setAlarmId(3);
+        AlarmSchedule<Alarm> armed = new AlarmSchedule<>(clock);
+        armed.put(alarm);
+        long triggerAt = armed.triggerOf(3);
+
+        clock.now = triggerAt;
+        AlarmSchedule<Alarm> reloaded = new AlarmSchedule<>(clock);
+        reloaded.putAll(Collections.singletonList(alarm), triggerAt - 1);
+        List<Alarm> fired = new ArrayList<>();
+        reloaded.advanceDue(fired);
+
+        assertEquals(1, fired.size());
+        assertEquals(millis("2026-10-15T09:00:00-04:00"), reloaded.triggerOf(3));
+        assertTrue(reloaded.triggerOf(3) > clock.now);
+    }
+
+    @Test
+    public void editingArmedAlarmInPlaceRegistersItAgain() {
+        Alarm alarm = new Alarm(7, 0, "Wake", true, true, NextTriggerCalculator.EVERY_DAY);
+        alarm.setAlarmId(4);
+        AlarmSchedule<Alarm> schedule = new AlarmSchedule<>(clock);
+        RecordingTarget target = new RecordingTarget();
+        schedule.put(alarm);
+        assertTrue(schedule.arm(target));
+        assertFalse(schedule.arm(target));
+
+        // Same time, new title and escalation: the registered intent is stale
+        Alarm edited = new Alarm(7, 0, "Wake gently", true, true, NextTriggerCalculator.EVERY_DAY);
+        edited.setAlarmId(4);
+        edited.setEscalation("gentle");
+        schedule.put(edited);
+
+        assertTrue(schedule.arm(target));
+        assertSame(edited, target.armed);
+        assertEquals(2, target.registrations);
+    }
+
+    @Test
+    public void queuingAnotherAlarmLaterKeepsRegistration() {
+        Alarm first = new Alarm(9, 0, "Wake", true, true, NextTriggerCalculator.EVERY_DAY);
+        first.setAlarmId(4);
+        Alarm later = new Alarm(10, 0, "Later", true, true, NextTriggerCalculator.EVERY_DAY);
+        later.setAlarmId(5);
+        AlarmSchedule<Alarm> schedule = new AlarmSchedule<>(clock);
+        RecordingTarget target = new RecordingTarget();
+        schedule.put(first);
+        schedule.arm(target);
+
+        schedule.put(later);
+
+        assertFalse(schedule.arm(target));
+        assertEquals(1, target.registrations);
+    }
+
+    private static Alarm oneOff(int alarmId, long fireAt) {
+        Alarm alarm = new Alarm(6, 30, "Once", true, false, NextTriggerCalculator.EVERY_DAY);
+        alarm.setAlarmId(alarmId);
+        alarm.setFireAt(fireAt);
+        return alarm;
+    }
+
+    private static long millis(String isoOffsetDateTime) {
+        return ZonedDateTime.parse(isoOffsetDateTime).toInstant().toEpochMilli();
+    }
+
+    private static final class RecordingTarget implements AlarmSchedule.Target<Alarm> {
+        Alarm armed;
+        int registrations;
+
+        @Override
+        public void setAlarmClock(long triggerAt, Alarm alarm) {
+            armed = alarm;
+            registrations++;
+        }
+
+        @Override
+        public void cancel() {
+            armed = null;
+        }
+    }
+
+    private static final class TestClock implements Clock {
+        private final NextTriggerCalculator calculator = new NextTriggerCalculator(TimeZone.getTimeZone("America/New_York"));
+        long now;
+
+        TestClock(long now) {
+            this.now = now;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return now;
+        }
+
+        @Override
+        public NextTriggerCalculator calculator() {
+            return calculator;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.nooze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class ChallengeStatsTest {
+    private static final int DAY = ChallengeLogEntry.epochDayOf("2026-10-01");
+
+    @Test
+    public void appendingDaysMatchesRebuild() {
+        List<ChallengeLogEntry> log = new ArrayList<>();
+        ChallengeStats incremental = new ChallengeStats();
+        for (int i = 0; i < 6; i++) {
+            ChallengeLogEntry entry = day(DAY + i, i == 3 ? ChallengeLogEntry.STATUS_MISSED : ChallengeLogEntry.STATUS_COMPLETED);
+            assertTrue(incremental.apply(null, entry));
+            log.add(entry);
+        }
+        assertSameStats(rebuilt(log), incremental);
+        assertEquals(2, incremental.currentStreak(DAY + 5));
+        assertEquals(3, incremental.getBestStreak());
+    }
+
+    @Test
+    public void outOfOrderCompletionFallsBackToRebuild() {
+        List<ChallengeLogEntry> log = new ArrayList<>();
+        ChallengeStats stats = new ChallengeStats();
+        for (int offset : new int[] {0, 1, 3}) {
+            ChallengeLogEntry entry = day(DAY + offset, ChallengeLogEntry.STATUS_COMPLETED);
+            assertTrue(stats.apply(null, entry));
+            log.add(entry);
+        }
+        assertEquals(1, stats.currentStreak(DAY + 3));
+
+        // Day 2 arrives late (cloud merge); it joins both runs, which apply() cannot do in place
+        ChallengeLogEntry late = day(DAY + 2, ChallengeLogEntry.STATUS_COMPLETED);
+        assertFalse(stats.apply(null, late));
+        log.add(late);
+        stats.rebuild(sorted(log));
+
+        assertEquals(4, stats.currentStreak(DAY + 3));
+        assertEquals(4, stats.getBestStreak());
+        assertEquals(4, stats.getCompletedDays());
+    }
+
+    @Test
+    public void lateMissedDayIsAppliedInPlace() {
+        List<ChallengeLogEntry> log = new ArrayList<>();
+        ChallengeStats incremental = new ChallengeStats();
+        for (int offset : new int[] {0, 1, 3}) {
+            ChallengeLogEntry entry = day(DAY + offset, ChallengeLogEntry.STATUS_COMPLETED);
+            incremental.apply(null, entry);
+            log.add(entry);
+        }
+        ChallengeLogEntry missed = day(DAY + 2, ChallengeLogEntry.STATUS_MISSED);
+        assertTrue(incremental.apply(null, missed));
+        log.add(missed);
+
+        assertSameStats(rebuilt(sorted(log)), incremental);
+        assertEquals(1, incremental.currentStreak(DAY + 3));
+    }
+
+    @Test
+    public void uncompletingDayRequiresRebuild() {
+        ChallengeStats stats = new ChallengeStats();
+        ChallengeLogEntry completed = day(DAY, ChallengeLogEntry.STATUS_COMPLETED);
+        stats.apply(null, completed);
+        assertFalse(stats.apply(completed, day(DAY, ChallengeLogEntry.STATUS_MISSED)));
+    }
+
+    @Test
+    public void completingLatestMissedDayIsAppliedInPlace() {
+        List<ChallengeLogEntry> log = new ArrayList<>();
+        ChallengeStats incremental = new ChallengeStats();
+        ChallengeLogEntry first = day(DAY, ChallengeLogEntry.STATUS_COMPLETED);
+        ChallengeLogEntry missed = day(DAY + 1, ChallengeLogEntry.STATUS_MISSED);
+        incremental.apply(null, first);
+        incremental.apply(null, missed);
+
+        ChallengeLogEntry completed = day(DAY + 1, ChallengeLogEntry.STATUS_COMPLETED);
+        completed.setWakeDelayMinutes(7);
+        assertTrue(incremental.apply(missed, completed));
+        log.add(first);
+        log.add(completed);
+
+        assertSameStats(rebuilt(log), incremental);
+        assertEquals(2, incremental.currentStreak(DAY + 1));
+        assertEquals(7.0, incremental.averageWakeDelayMinutes(), 0.0);
+    }
+
+    private static ChallengeLogEntry day(int epochDay, int status) {
+        return new ChallengeLogEntry(ChallengeLogEntry.dateKeyOf(epochDay), epochDay, status);
+    }
+
+    private static List<ChallengeLogEntry> sorted(List<ChallengeLogEntry> log) {
+        List<ChallengeLogEntry> ascending = new ArrayList<>(log);
+        ascending.sort(Comparator.comparingInt(ChallengeLogEntry::getEpochDay));
+        return ascending;
+    }
+
+    private static ChallengeStats rebuilt(List<ChallengeLogEntry> ascending) {
+        ChallengeStats stats = new ChallengeStats();
+        stats.rebuild(ascending);
+        return stats;
+    }
+
+    // latestMissedDay may stay behind as a bound after a missed day is completed over, so compare what it drives
+    private static void assertSameStats(ChallengeStats expected, ChallengeStats actual) {
+        assertEquals(expected.getCompletedDays(), actual.getCompletedDays());
+        assertEquals(expected.getMissedDays(), actual.getMissedDays());
+        assertEquals(expected.getRunLength(), actual.getRunLength());
+        assertEquals(expected.getRunEndDay(), actual.getRunEndDay());
+        assertEquals(expected.getBestStreak(), actual.getBestStreak());
+        assertEquals(expected.getWakeDelayTotalMinutes(), actual.getWakeDelayTotalMinutes());
+        assertEquals(expected.getWakeDelaySamples(), actual.getWakeDelaySamples());
+        for (int today = DAY; today < DAY + 10; today++) {
+            assertEquals(expected.currentStreak(today), actual.currentStreak(today));
+        }
+    }
+}
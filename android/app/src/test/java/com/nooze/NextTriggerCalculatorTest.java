@@ -0,0 +1,71 @@
+package com.nooze;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.TimeZone;
+
+public class NextTriggerCalculatorTest {
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private final NextTriggerCalculator calculator = new NextTriggerCalculator(TimeZone.getTimeZone(NEW_YORK));
+
+    @Test
+    public void springForwardGapRingsSameDistancePastTransition() {
+        // 2026-03-08 02:00 EST jumps to 03:00 EDT, so 02:30 does not exist that night
+        long now = millis("2026-03-08T00:00:00-05:00");
+        long trigger = calculator.nextTrigger(2, 30, NextTriggerCalculator.EVERY_DAY, now);
+        assertEquals(millis("2026-03-08T03:30:00-04:00"), trigger);
+    }
+
+    @Test
+    public void fallBackOverlapRingsOnlyAtFirstOccurrence() {
+        // 2026-11-01 01:30 happens at 05:30Z (EDT) and again at 06:30Z (EST)
+        long beforeOverlap = millis("2026-11-01T00:00:00-04:00");
+        assertEquals(millis("2026-11-01T01:30:00-04:00"),
+            calculator.nextTrigger(1, 30, NextTriggerCalculator.EVERY_DAY, beforeOverlap));
+
+        long afterFirst = millis("2026-11-01T01:31:00-04:00");
+        assertEquals(millis("2026-11-02T01:30:00-05:00"),
+            calculator.nextTrigger(1, 30, NextTriggerCalculator.EVERY_DAY, afterFirst));
+
+        long insideSecond = millis("2026-11-01T01:10:00-05:00");
+        assertEquals(millis("2026-11-02T01:30:00-05:00"),
+            calculator.nextTrigger(1, 30, NextTriggerCalculator.EVERY_DAY, insideSecond));
+    }
+
+    @Test
+    public void singleDayMaskWaitsForThatWeekday() {
+        // 2026-10-14 is a Wednesday; once 07:00 has passed the next one is a week later
+        long wednesdayMorning = millis("2026-10-14T08:00:00-04:00");
+        assertEquals(millis("2026-10-21T07:00:00-04:00"),
+            calculator.nextTrigger(7, 0, NextTriggerCalculator.WEDNESDAY, wednesdayMorning));
+        assertEquals(millis("2026-10-18T07:00:00-04:00"),
+            calculator.nextTrigger(7, 0, NextTriggerCalculator.SUNDAY, wednesdayMorning));
+    }
+
+    @Test
+    public void singleDayMaskMatchesLaterTheSameDay() {
+        long wednesdayMorning = millis("2026-10-14T06:00:00-04:00");
+        assertEquals(millis("2026-10-14T07:00:00-04:00"),
+            calculator.nextTrigger(7, 0, NextTriggerCalculator.WEDNESDAY, wednesdayMorning));
+    }
+
+    @Test
+    public void triggerIsStrictlyAfterNow() {
+        long exactly = millis("2026-10-14T07:00:00-04:00");
+        assertEquals(millis("2026-10-15T07:00:00-04:00"),
+            calculator.nextTrigger(7, 0, NextTriggerCalculator.EVERY_DAY, exactly));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidTime() {
+        calculator.nextTrigger(24, 0, NextTriggerCalculator.EVERY_DAY, 0);
+    }
+
+    private static long millis(String isoOffsetDateTime) {
+        return ZonedDateTime.parse(isoOffsetDateTime).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,79 @@
+package com.nooze.benchmarks;
+
+import com.nooze.AlarmQueue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlarmQueue operations the dispatcher performs on a roster-sized queue:
+ * a firing (poll + re-queue a day later), an edit (move one alarm), a
+ * delete + re-add, and a full rebuild as done on boot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AlarmQueueBenchmark {
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    private static final long BASE = 1_760_000_000_000L;
+
+    @Param({"10000"})
+    public int alarmCount;
+
+    private AlarmQueue queue;
+    private long[] triggers;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        triggers = new long[alarmCount];
+        queue = new AlarmQueue();
+        for (int id = 0; id < alarmCount; id++) {
+            triggers[id] = BASE + (long) (random.nextDouble() * 7 * DAY_MS);
+            queue.schedule(id, triggers[id]);
+        }
+    }
+
+    @Benchmark
+    public int fireAndRequeue() {
+        long trigger = queue.peekTrigger();
+        int id = queue.poll();
+        queue.schedule(id, trigger + DAY_MS);
+        return id;
+    }
+
+    @Benchmark
+    public int moveOne() {
+        int id = random.nextInt(alarmCount);
+        queue.schedule(id, BASE + (long) (random.nextDouble() * 7 * DAY_MS));
+        return queue.peekId();
+    }
+
+    @Benchmark
+    public int removeAndReadd() {
+        int id = random.nextInt(alarmCount);
+        long trigger = queue.triggerOf(id);
+        queue.remove(id);
+        queue.schedule(id, trigger);
+        return queue.peekId();
+    }
+
+    @Benchmark
+    public int rebuild() {
+        AlarmQueue rebuilt = new AlarmQueue();
+        for (int id = 0; id < alarmCount; id++) {
+            rebuilt.schedule(id, triggers[id]);
+        }
+        return rebuilt.peekId();
+    }
+}
@@ -0,0 +1,109 @@
+package com.nooze.benchmarks;
+
+import com.nooze.ArithmeticChallenge;
+import com.nooze.ChallengeGenerator;
+import com.nooze.ChallengePool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing one four-question round when the challenge screen opens:
+ * the original string-building generator, inline triple generation, and taking
+ * triples from the mapped ChallengePool, plus a full pool refill as done when
+ * an alarm is armed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChallengeBenchmark {
+    private static final int QUESTIONS = 4;
+
+    @Param({"1", "3"})
+    public int difficulty;
+
+    private final ChallengeGenerator generator = ArithmeticChallenge.INSTANCE;
+    private final int[] problems = new int[QUESTIONS * 3];
+    private final Random random = new Random(42);
+    private File dir;
+    private ChallengePool pool;
+    private int refillDifficulty;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("challenge-bench").toFile();
+        pool = new ChallengePool(new File(dir, "challenge_pool.bin"));
+        pool.ensureFilled(generator, difficulty);
+        refillDifficulty = difficulty;
+        generator.generate(random, difficulty, problems, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(dir, "challenge_pool.bin").delete();
+        dir.delete();
+    }
+
+    // What MathProblemActivity.generateQuestions did before pooling, minus the logging
+    @Benchmark
+    public int legacyStringRound() {
+        int total = 0;
+        String[] questions = new String[QUESTIONS];
+        for (int i = 0; i < QUESTIONS; i++) {
+            int num1 = random.nextInt(50) + 1;
+            int num2 = random.nextInt(50) + 1;
+            if (num1 < num2) {
+                int temp = num1;
+                num1 = num2;
+                num2 = temp;
+            }
+            questions[i] = num1 + " + " + num2 + " = ?";
+            total += num1 + num2 + questions[i].length();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int inlineTriples() {
+        int total = 0;
+        for (int i = 0; i < QUESTIONS; i++) {
+            generator.generate(random, difficulty, problems, i * 3);
+            total += generator.answer(problems, i * 3);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int poolTake() {
+        if (pool.remaining() < QUESTIONS) {
+            pool.ensureFilled(generator, difficulty);
+        }
+        return pool.take(QUESTIONS, problems);
+    }
+
+    @Benchmark
+    public int formatQuestion() {
+        return generator.format(problems, 0).length();
+    }
+
+    @Benchmark
+    public boolean poolRefill() {
+        // Alternating difficulty forces a full regeneration every call
+        refillDifficulty = refillDifficulty == difficulty ? difficulty % 3 + 1 : difficulty;
+        return pool.ensureFilled(generator, refillDifficulty);
+    }
+}
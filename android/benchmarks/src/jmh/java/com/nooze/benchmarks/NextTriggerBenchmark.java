@@ -0,0 +1,73 @@
+package com.nooze.benchmarks;
+
+import com.nooze.NextTriggerCalculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NextTriggerCalculator next to the Calendar-based code it replaced in
+ * Alarm.schedule, BootCompletedReceiver and RescheduleAlarmsService.
+ * Run with -prof gc to compare allocation per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NextTriggerBenchmark {
+    @Param({"America/New_York", "Asia/Kolkata"})
+    public String zoneId;
+
+    private TimeZone zone;
+    private NextTriggerCalculator calculator;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        zone = TimeZone.getTimeZone(zoneId);
+        TimeZone.setDefault(zone);
+        calculator = new NextTriggerCalculator(zone);
+        now = 1_760_000_000_000L;
+    }
+
+    @Benchmark
+    public long calendarBaseline() {
+        Calendar cal = Calendar.getInstance();
+        Calendar current = Calendar.getInstance();
+        cal.setTimeInMillis(now);
+        current.setTimeInMillis(now);
+        cal.set(Calendar.HOUR_OF_DAY, 6);
+        cal.set(Calendar.MINUTE, 30);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        if (cal.getTimeInMillis() <= current.getTimeInMillis()) {
+            cal.add(Calendar.DAY_OF_YEAR, 1);
+        }
+        return cal.getTimeInMillis();
+    }
+
+    @Benchmark
+    public long calculatorDaily() {
+        return calculator.nextTrigger(6, 30, now);
+    }
+
+    @Benchmark
+    public long calculatorWeekdays() {
+        int weekdays = NextTriggerCalculator.MONDAY | NextTriggerCalculator.WEDNESDAY | NextTriggerCalculator.FRIDAY;
+        return calculator.nextTrigger(6, 30, weekdays, now);
+    }
+
+    @Benchmark
+    public long calculatorDefaultZone() {
+        return NextTriggerCalculator.getDefault().nextTrigger(6, 30, now);
+    }
+}
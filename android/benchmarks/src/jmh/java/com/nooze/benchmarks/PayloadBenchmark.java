@@ -0,0 +1,70 @@
+package com.nooze.benchmarks;
+
+import com.nooze.AlarmLatencyLog;
+import com.nooze.EscalationProfile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-firing payload handling on the wake path: decoding the escalation spec
+ * carried in the alarm intent (cached default vs. a custom spec), and writing
+ * a latency record into the mapped AlarmLatencyLog.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PayloadBenchmark {
+    private static final String CUSTOM_SPEC =
+        "0,0.4,200,150,260,800,120,150;"
+        + "20000,0.7,280,120,320,600,200,230;"
+        + "45000,1.0,360,100,420,500,255,255";
+
+    private File dir;
+    private AlarmLatencyLog latencyLog;
+    private long scheduledAt = 1_760_000_000_000L;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("payload-bench").toFile();
+        latencyLog = new AlarmLatencyLog(new File(dir, "alarm_latency.bin"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(dir, "alarm_latency.bin").delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public int parseDefaultEscalation() {
+        return EscalationProfile.parse(null).stepCount();
+    }
+
+    @Benchmark
+    public int parseCustomEscalation() {
+        return EscalationProfile.parse(CUSTOM_SPEC).stepCount();
+    }
+
+    @Benchmark
+    public long recordLatencySample() {
+        scheduledAt += 60_000L;
+        latencyLog.begin(scheduledAt);
+        for (int stage = 0; stage < AlarmLatencyLog.STAGE_COUNT; stage++) {
+            latencyLog.mark(stage, scheduledAt + 10 * (stage + 1));
+        }
+        return scheduledAt;
+    }
+}
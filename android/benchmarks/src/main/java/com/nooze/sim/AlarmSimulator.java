@@ -0,0 +1,256 @@
+package com.nooze.sim;
+
+import com.nooze.AlarmSchedule;
+import com.nooze.NextTriggerCalculator;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Replays months of firings through AlarmSchedule on the JVM, with a ManualClock
+ * and a FakeAlarmManager standing in for the device.
+ *
+ * Each scenario jumps the clock from one armed deadline to the next, delivers it
+ * and re-arms exactly as AlarmDispatcher.onFired() does; zone changes call
+ * refresh() the way TimeChangeReceiver does. Restart scenarios drop the schedule
+ * after every arm and reload it from the started rows when the deadline fires,
+ * like a firing that has to start a dead process. Firings are compared against
+ * expectations computed independently with java.time, and the report lists
+ * drift, duplicate, missed and unexpected firings. Exits non-zero on any
+ * duplicate, missed or unexpected firing.
+ *
+ * Run with: ./gradlew :benchmarks:simulate [-Pdays=365]
+ */
+public class AlarmSimulator {
+    private static final long MINUTE_MS = 60_000L;
+    private static final long DAY_MS = 24 * 60 * MINUTE_MS;
+    // Alarms coalesced into an earlier firing ring up to DUE_SLACK_MS early; anything beyond is wrong
+    private static final long MATCH_WINDOW_MS = AlarmSchedule.DUE_SLACK_MS + MINUTE_MS;
+    private static final int WEEKDAYS = NextTriggerCalculator.MONDAY | NextTriggerCalculator.TUESDAY
+        | NextTriggerCalculator.WEDNESDAY | NextTriggerCalculator.THURSDAY | NextTriggerCalculator.FRIDAY;
+    private static final int WEEKEND = NextTriggerCalculator.SATURDAY | NextTriggerCalculator.SUNDAY;
+
+    /** A zone change at an instant, as delivered by ACTION_TIMEZONE_CHANGED. */
+    static final class ZoneChange {
+        final long at;
+        final ZoneId zone;
+
+        ZoneChange(long at, ZoneId zone) {
+            this.at = at;
+            this.zone = zone;
+        }
+    }
+
+    static final class Scenario {
+        final String name;
+        final ZoneId zone;
+        final long start;
+        final long end;
+        final List<SimAlarm> alarms;
+        final List<ZoneChange> zoneChanges;
+        // Process dies between arming and every firing
+        final boolean restartBeforeFiring;
+
+        Scenario(String name, ZoneId zone, LocalDate startDate, int days, List<SimAlarm> alarms, List<ZoneChange> zoneChanges) {
+            this(name, zone, startDate, days, alarms, zoneChanges, false);
+        }
+
+        Scenario(String name, ZoneId zone, LocalDate startDate, int days, List<SimAlarm> alarms, List<ZoneChange> zoneChanges,
+                 boolean restartBeforeFiring) {
+            this.name = name;
+            this.zone = zone;
+            this.start = startDate.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.end = start + days * DAY_MS;
+            this.alarms = alarms;
+            this.zoneChanges = zoneChanges;
+            this.restartBeforeFiring = restartBeforeFiring;
+        }
+    }
+
+    static final class Report {
+        int firings;
+        int expected;
+        int duplicates;
+        int missed;
+        int unexpected;
+        long maxEarlyMs;
+        long maxLateMs;
+        int arms;
+        int restarts;
+        long elapsedMs;
+        final List<String> problems = new ArrayList<>();
+
+        boolean clean() {
+            return duplicates == 0 && missed == 0 && unexpected == 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 365;
+        LocalDate startDate = LocalDate.of(2026, 1, 1);
+        List<SimAlarm> alarms = standardAlarms();
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String zone : new String[] {"America/New_York", "Europe/London", "Australia/Lord_Howe",
+            "America/Santiago", "Asia/Kolkata"}) {
+            scenarios.add(new Scenario(zone, ZoneId.of(zone), startDate, days, alarms, new ArrayList<>()));
+        }
+        ZoneId home = ZoneId.of("America/Los_Angeles");
+        List<ZoneChange> trip = Arrays.asList(
+            change(startDate.plusDays(days / 5), LocalTime.of(15, 20), home, "Asia/Tokyo"),
+            change(startDate.plusDays(days / 5 + days / 10), LocalTime.of(9, 5), ZoneId.of("Asia/Tokyo"), "Europe/Berlin"),
+            change(startDate.plusDays(days / 2), LocalTime.of(18, 40), ZoneId.of("Europe/Berlin"), "America/Los_Angeles"));
+        scenarios.add(new Scenario("travel LA>Tokyo>Berlin>LA", home, startDate, days, alarms, trip));
+        scenarios.add(new Scenario("restart America/New_York", ZoneId.of("America/New_York"), startDate, days,
+            alarms, new ArrayList<>(), true));
+
+        boolean clean = true;
+        System.out.println("Simulating " + days + " day(s) from " + startDate + " with " + alarms.size() + " alarm(s)");
+        for (Scenario scenario : scenarios) {
+            Report report = run(scenario);
+            clean &= report.clean();
+            System.out.printf("%-28s firings=%d expected=%d early<=%ds late<=%ds dup=%d missed=%d unexpected=%d arms=%d restarts=%d in %dms%n",
+                scenario.name, report.firings, report.expected, report.maxEarlyMs / 1000, report.maxLateMs / 1000,
+                report.duplicates, report.missed, report.unexpected, report.arms, report.restarts, report.elapsedMs);
+            for (String problem : report.problems) {
+                System.out.println("    " + problem);
+            }
+        }
+        if (!clean) {
+            System.exit(1);
+        }
+    }
+
+    // Gaps, overlaps, coalesced firings, weekday masks and a one-off
+    static List<SimAlarm> standardAlarms() {
+        return Arrays.asList(
+            new SimAlarm(1, 2, 30, NextTriggerCalculator.EVERY_DAY, true),
+            new SimAlarm(2, 1, 30, NextTriggerCalculator.EVERY_DAY, true),
+            new SimAlarm(3, 7, 0, WEEKDAYS, true),
+            new SimAlarm(4, 7, 0, NextTriggerCalculator.EVERY_DAY, true),
+            new SimAlarm(5, 9, 15, WEEKEND, true),
+            new SimAlarm(6, 0, 0, NextTriggerCalculator.EVERY_DAY, true),
+            new SimAlarm(7, 6, 45, NextTriggerCalculator.EVERY_DAY, false));
+    }
+
+    static Report run(Scenario scenario) {
+        long startedAt = System.nanoTime();
+        ManualClock clock = new ManualClock(scenario.start, TimeZone.getTimeZone(scenario.zone));
+        FakeAlarmManager alarmManager = new FakeAlarmManager();
+        AlarmSchedule<SimAlarm> schedule = new AlarmSchedule<>(clock);
+        schedule.putAll(scenario.alarms);
+        schedule.arm(alarmManager);
+        // Rows still marked started, as alarm_table would hold them
+        List<SimAlarm> started = new ArrayList<>(scenario.alarms);
+
+        HashMap<Integer, List<Long>> actual = new HashMap<>();
+        List<SimAlarm> fired = new ArrayList<>();
+        int nextChange = 0;
+        Report report = new Report();
+        while (alarmManager.isArmed() && alarmManager.getTriggerAt() <= scenario.end) {
+            if (nextChange < scenario.zoneChanges.size()
+                && scenario.zoneChanges.get(nextChange).at < alarmManager.getTriggerAt()) {
+                ZoneChange change = scenario.zoneChanges.get(nextChange++);
+                clock.advanceTo(change.at);
+                clock.setZone(TimeZone.getTimeZone(change.zone));
+                schedule.refresh(new ArrayList<>());
+                schedule.arm(alarmManager);
+                continue;
+            }
+            long triggerAt = alarmManager.getTriggerAt();
+            clock.advanceTo(triggerAt);
+            alarmManager.deliver();
+            if (scenario.restartBeforeFiring) {
+                // Fresh process: reload the started rows the way AlarmDispatcher.onFired() does when not loaded
+                schedule = new AlarmSchedule<>(clock);
+                schedule.putAll(started, Math.min(clock.currentTimeMillis(), triggerAt - 1));
+                report.restarts++;
+            }
+            fired.clear();
+            schedule.advanceDue(fired);
+            for (SimAlarm alarm : fired) {
+                actual.computeIfAbsent(alarm.getAlarmId(), id -> new ArrayList<>()).add(clock.currentTimeMillis());
+                report.firings++;
+                if (!alarm.isRecurring()) started.remove(alarm);
+            }
+            schedule.arm(alarmManager);
+        }
+        report.arms = alarmManager.getSetCount();
+
+        for (SimAlarm alarm : scenario.alarms) {
+            compare(alarm, expectedFirings(alarm, scenario), actual.getOrDefault(alarm.getAlarmId(), new ArrayList<>()), report);
+        }
+        report.elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        return report;
+    }
+
+    // Wall-clock occurrences in whichever zone is in effect, resolved by java.time rather than NextTriggerCalculator
+    static List<Long> expectedFirings(SimAlarm alarm, Scenario scenario) {
+        List<Long> expected = new ArrayList<>();
+        long segmentStart = scenario.start;
+        ZoneId zone = scenario.zone;
+        for (int i = 0; i <= scenario.zoneChanges.size(); i++) {
+            long segmentEnd = i < scenario.zoneChanges.size() ? scenario.zoneChanges.get(i).at : scenario.end;
+            LocalDate day = Instant.ofEpochMilli(segmentStart).atZone(zone).toLocalDate().minusDays(1);
+            LocalDate last = Instant.ofEpochMilli(segmentEnd).atZone(zone).toLocalDate().plusDays(1);
+            for (; !day.isAfter(last); day = day.plusDays(1)) {
+                int dayBit = 1 << (day.getDayOfWeek().getValue() - 1);
+                if (alarm.isRecurring() && (alarm.getDaysMask() & dayBit) == 0) continue;
+                long at = ZonedDateTime.ofLocal(LocalDateTime.of(day, LocalTime.of(alarm.getHour(), alarm.getMinute())), zone, null)
+                    .toInstant().toEpochMilli();
+                if (at > segmentStart && at <= segmentEnd) {
+                    expected.add(at);
+                    if (!alarm.isRecurring()) return expected;
+                }
+            }
+            if (i < scenario.zoneChanges.size()) {
+                segmentStart = segmentEnd;
+                zone = scenario.zoneChanges.get(i).zone;
+            }
+        }
+        return expected;
+    }
+
+    private static void compare(SimAlarm alarm, List<Long> expected, List<Long> actual, Report report) {
+        report.expected += expected.size();
+        boolean[] used = new boolean[actual.size()];
+        for (long want : expected) {
+            int matches = 0;
+            for (int i = 0; i < actual.size(); i++) {
+                long drift = actual.get(i) - want;
+                if (used[i] || Math.abs(drift) > MATCH_WINDOW_MS) continue;
+                used[i] = true;
+                if (++matches > 1) {
+                    report.duplicates++;
+                    report.problems.add(alarm + " rang twice for " + Instant.ofEpochMilli(want));
+                    continue;
+                }
+                report.maxEarlyMs = Math.max(report.maxEarlyMs, -drift);
+                report.maxLateMs = Math.max(report.maxLateMs, drift);
+            }
+            if (matches == 0) {
+                report.missed++;
+                report.problems.add(alarm + " missed " + Instant.ofEpochMilli(want));
+            }
+        }
+        for (int i = 0; i < actual.size(); i++) {
+            if (!used[i]) {
+                report.unexpected++;
+                report.problems.add(alarm + " rang unexpectedly at " + Instant.ofEpochMilli(actual.get(i)));
+            }
+        }
+    }
+
+    private static ZoneChange change(LocalDate date, LocalTime time, ZoneId from, String to) {
+        return new ZoneChange(ZonedDateTime.of(date, time, from).toInstant().toEpochMilli(), ZoneId.of(to));
+    }
+}
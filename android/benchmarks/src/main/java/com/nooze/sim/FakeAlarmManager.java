@@ -0,0 +1,54 @@
+package com.nooze.sim;
+
+import com.nooze.AlarmSchedule;
+
+/**
+ * In-memory stand-in for AlarmManager.setAlarmClock with the dispatcher's single
+ * request code: a new registration replaces the previous one, and deliver()
+ * consumes it the way a fired PendingIntent is spent.
+ */
+public class FakeAlarmManager implements AlarmSchedule.Target<SimAlarm> {
+    private long triggerAt = -1;
+    private SimAlarm alarm;
+    private int setCount;
+    private int cancelCount;
+
+    @Override
+    public void setAlarmClock(long triggerAt, SimAlarm alarm) {
+        this.triggerAt = triggerAt;
+        this.alarm = alarm;
+        setCount++;
+    }
+
+    @Override
+    public void cancel() {
+        triggerAt = -1;
+        alarm = null;
+        cancelCount++;
+    }
+
+    public boolean isArmed() {
+        return triggerAt >= 0;
+    }
+
+    public long getTriggerAt() {
+        return triggerAt;
+    }
+
+    /** Fires the registered alarm and clears the registration; returns the alarm it carried. */
+    public SimAlarm deliver() {
+        if (!isArmed()) throw new IllegalStateException("Nothing armed");
+        SimAlarm delivered = alarm;
+        triggerAt = -1;
+        alarm = null;
+        return delivered;
+    }
+
+    public int getSetCount() {
+        return setCount;
+    }
+
+    public int getCancelCount() {
+        return cancelCount;
+    }
+}
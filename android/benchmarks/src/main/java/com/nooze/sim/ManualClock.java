@@ -0,0 +1,38 @@
+package com.nooze.sim;
+
+import com.nooze.Clock;
+import com.nooze.NextTriggerCalculator;
+
+import java.util.TimeZone;
+
+/** Clock that only moves when told to, with a zone that can be switched like a device setting. */
+public class ManualClock implements Clock {
+    private long now;
+    private NextTriggerCalculator calculator;
+
+    public ManualClock(long startMillis, TimeZone zone) {
+        this.now = startMillis;
+        this.calculator = new NextTriggerCalculator(zone);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public NextTriggerCalculator calculator() {
+        return calculator;
+    }
+
+    public void advanceTo(long millis) {
+        if (millis < now) {
+            throw new IllegalArgumentException("Clock cannot run backwards: " + millis + " < " + now);
+        }
+        now = millis;
+    }
+
+    public void setZone(TimeZone zone) {
+        calculator = new NextTriggerCalculator(zone);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nooze.sim;
+
+import com.nooze.AlarmSchedule;
+
+/** Alarm row as the simulator sees it: only the fields AlarmSchedule needs. */
+public class SimAlarm implements AlarmSchedule.Entry {
+    private final int alarmId;
+    private final int hour;
+    private final int minute;
+    private final int daysMask;
+    private final boolean recurring;
+    private long nextTriggerAt;
+
+    public SimAlarm(int alarmId, int hour, int minute, int daysMask, boolean recurring) {
+        this.alarmId = alarmId;
+        this.hour = hour;
+        this.minute = minute;
+        this.daysMask = daysMask;
+        this.recurring = recurring;
+    }
+
+    @Override
+    public int getAlarmId() { return alarmId; }
+    @Override
+    public int getHour() { return hour; }
+    @Override
+    public int getMinute() { return minute; }
+    @Override
+    public int getDaysMask() { return daysMask; }
+    @Override
+    public boolean isRecurring() { return recurring; }
+    // Simulated one-offs ring at their next hour:minute, the case that depends on the clock
+    @Override
+    public long getFireAt() { return 0; }
+    @Override
+    public long getNextTriggerAt() { return nextTriggerAt; }
+    @Override
+    public void setNextTriggerAt(long nextTriggerAt) { this.nextTriggerAt = nextTriggerAt; }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %02d:%02d%s", alarmId, hour, minute, recurring ? " mask=" + daysMask : " once");
+    }
+}
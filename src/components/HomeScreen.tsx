@@ -14,6 +14,7 @@ import {
 import LinearGradient from 'react-native-linear-gradient';
 import { homeStyles, colors, normalize } from '../styles';
 import MaterialCommunityIcons from 'react-native-vector-icons/MaterialCommunityIcons';
+import AlarmService from '../services/AlarmService';
 
 interface HomeScreenProps {
   wakeUpTime?: Date | null;
@@ -122,6 +123,18 @@ export const HomeScreen: React.FC<HomeScreenProps> = ({
     return `${pad(h12)}:${pad(minutes)} ${period}`;
   };
 
+  // Native keeps every started alarm's next trigger indexed; local math is the fallback
+  const [nativeNext, setNativeNext] = useState<Date | null>(null);
+  useEffect(() => {
+    let cancelled = false;
+    AlarmService.getInstance().getNextNativeTrigger().then(next => {
+      if (!cancelled) setNativeNext(next);
+    });
+    return () => {
+      cancelled = true;
+    };
+  }, [wakeUpTime]);
+
   const getNextAlarmDate = (date: Date | null | undefined) => {
     if (!date) return null;
     const now = new Date();
@@ -137,14 +150,9 @@ export const HomeScreen: React.FC<HomeScreenProps> = ({
     return days[date.getDay()];
   };
 
-  const computeNextAlarmDiff = (date: Date | null | undefined) => {
-    if (!date) return '';
+  const computeNextAlarmDiff = (next: Date | null) => {
+    if (!next) return '';
     const now = new Date();
-    const next = new Date(now);
-    next.setHours(date.getHours(), date.getMinutes(), 0, 0);
-    if (next <= now) {
-      next.setDate(next.getDate() + 1);
-    }
     const diffMs = next.getTime() - now.getTime();
     const diffMin = Math.round(diffMs / 60000);
     const hours = Math.floor(diffMin / 60);
@@ -267,14 +275,14 @@ export const HomeScreen: React.FC<HomeScreenProps> = ({
                 <View style={homeStyles.mainCardLeft}>
                   <Text style={homeStyles.mainLabel}>Next alarm</Text>
                   {(() => {
-                    const next = getNextAlarmDate(wakeUpTime || null);
+                    const next = nativeNext ?? getNextAlarmDate(wakeUpTime || null);
                     const day = formatDayOfWeek(next);
-                    const time = formatTime(wakeUpTime || null);
+                    const time = formatTime(next);
                     return (
                       <>
                         <Text style={homeStyles.mainValue}>{day ? `${day}, ${time}` : '—'}</Text>
                         <Text style={[homeStyles.mainLabel, { marginTop: normalize(4) }]}>
-                          {computeNextAlarmDiff(wakeUpTime || null)}
+                          {computeNextAlarmDiff(next)}
                         </Text>
                       </>
                     );
@@ -92,5 +92,6 @@ export const useChallenge = () => {
     dayStatus: (date: Date) => challengeService.getDayStatus(date),
     getLog: (date: Date): ChallengeLogEntry | undefined => challengeService.getLog(date),
     completedDaysFromLogs: () => currentChallenge ? challengeService.getCompletedDaysCount(currentChallenge) : 0,
+    getStats: () => challengeService.getStats(),
   };
 };
@@ -1,6 +1,23 @@
 import AsyncStorage from '@react-native-async-storage/async-storage';
+import NativeAlarmModule from '../specs/NativeAlarmModule';
 import { Alarm } from '../types';
 
+// Room row ids are 31-bit ints; JS ids are timestamp strings
+const toNativeAlarmId = (id: string): number => {
+  let hash = 0;
+  for (let i = 0; i < id.length; i++) {
+    hash = (hash * 31 + id.charCodeAt(i)) | 0;
+  }
+  return (hash & 0x7fffffff) || 1;
+};
+
+const EVERY_DAY = 0x7f;
+
+// JS repeatDays use 0 = Sunday; the native daysMask uses bit 0 = Monday.
+// No days selected still means a daily alarm, never a one-off.
+const toDaysMask = (repeatDays: number[]): number =>
+  repeatDays.reduce((mask, day) => mask | (1 << ((day + 6) % 7)), 0) || EVERY_DAY;
+
 class AlarmService {
   private static instance: AlarmService;
   private alarms: Alarm[] = [];
@@ -35,6 +52,7 @@ class AlarmService {
   async saveAlarms(): Promise<void> {
     try {
       await AsyncStorage.setItem('alarms', JSON.stringify(this.alarms));
+      await this.syncToNative();
       
       // Sync to cloud if user is authenticated
       await this.syncToCloud();
@@ -43,6 +61,38 @@ class AlarmService {
     }
   }
 
+  // Room is the copy the boot, trigger and reschedule paths read; native applies only the diff.
+  // This is the only JS path that writes native alarms, so the list here is the whole schedule.
+  private async syncToNative(): Promise<void> {
+    if (!NativeAlarmModule) return;
+    try {
+      await NativeAlarmModule.syncAlarms(this.alarms.map(alarm => {
+        const time = new Date(alarm.time);
+        return {
+          alarmId: toNativeAlarmId(alarm.id),
+          hour: time.getHours(),
+          minute: time.getMinutes(),
+          daysMask: toDaysMask(alarm.repeatDays || []),
+          isActive: alarm.isActive,
+        };
+      }));
+    } catch (error) {
+      console.warn('Native alarm sync failed:', error);
+    }
+  }
+
+  // Earliest started alarm as native has it queued; null off-device or when nothing is armed
+  async getNextNativeTrigger(): Promise<Date | null> {
+    if (!NativeAlarmModule) return null;
+    try {
+      const [next] = await NativeAlarmModule.getNextAlarms(1);
+      return next && next.triggerAt > 0 ? new Date(next.triggerAt) : null;
+    } catch (error) {
+      console.warn('Reading next native alarm failed:', error);
+      return null;
+    }
+  }
+
   private async syncToCloud(): Promise<void> {
     try {
       if (!this.cloudSyncService) {
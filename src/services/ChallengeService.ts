@@ -1,5 +1,16 @@
 import AsyncStorage from '@react-native-async-storage/async-storage';
-import { Challenge, OnboardingData, ChallengeLogEntry, DayStatus } from '../types';
+import NativeAlarmModule from '../specs/NativeAlarmModule';
+import { Challenge, OnboardingData, ChallengeLogEntry, ChallengeStats, DayStatus } from '../types';
+
+// Android keeps the log in Room (challenge_log) with incremental stats; other platforms use AsyncStorage
+const nativeLog = () => NativeAlarmModule;
+
+const toNativeDay = (entry: ChallengeLogEntry) => ({
+  dateKey: entry.dateKey,
+  status: entry.status,
+  actualWakeAt: entry.actualWakeTime ? new Date(entry.actualWakeTime).getTime() : null,
+  solvedMath: entry.solvedMath ?? null,
+});
 
 class ChallengeService {
   private static instance: ChallengeService;
@@ -27,11 +38,7 @@ class ChallengeService {
           wakeUpTime: new Date(challenge.wakeUpTime),
           startDate: new Date(challenge.startDate),
         };
-        // Load logs
-        try {
-          const logsJson = await AsyncStorage.getItem('challengeLogs');
-          this.logsByDate = logsJson ? JSON.parse(logsJson) : {};
-        } catch {}
+        await this.loadLogs();
       }
       return this.currentChallenge;
     } catch (error) {
@@ -61,22 +68,56 @@ class ChallengeService {
 
   async loadLogs(): Promise<Record<string, ChallengeLogEntry>> {
     try {
-      const logsJson = await AsyncStorage.getItem('challengeLogs');
-      this.logsByDate = logsJson ? JSON.parse(logsJson) : {};
+      const native = nativeLog();
+      if (!native) {
+        const logsJson = await AsyncStorage.getItem('challengeLogs');
+        this.logsByDate = logsJson ? JSON.parse(logsJson) : {};
+        return this.logsByDate;
+      }
+      // One-time move of the legacy JSON blob into the native table
+      const legacyJson = await AsyncStorage.getItem('challengeLogs');
+      if (legacyJson) {
+        await native.importChallengeLog(Object.values(JSON.parse(legacyJson)).map(toNativeDay));
+        await AsyncStorage.removeItem('challengeLogs');
+      }
+      const rows: any[] = await native.getChallengeLog('0000-00-00', '9999-12-31');
+      const logs: Record<string, ChallengeLogEntry> = {};
+      for (const row of rows) {
+        logs[row.dateKey] = {
+          dateKey: row.dateKey,
+          status: row.status,
+          actualWakeTime: row.actualWakeAt ? new Date(row.actualWakeAt).toISOString() : undefined,
+          solvedMath: row.solvedMath,
+        };
+      }
+      this.logsByDate = logs;
       return this.logsByDate;
     } catch {
       return {};
     }
   }
 
-  private async saveLogsToStorage(): Promise<void> {
-    await AsyncStorage.setItem('challengeLogs', JSON.stringify(this.logsByDate));
+  async saveLogs(logs: Record<string, ChallengeLogEntry>): Promise<void> {
+    this.logsByDate = logs;
+    const native = nativeLog();
+    if (native) {
+      await native.importChallengeLog(Object.values(logs).map(toNativeDay));
+    } else {
+      await AsyncStorage.setItem('challengeLogs', JSON.stringify(this.logsByDate));
+    }
     await this.syncLogsToCloud();
   }
 
-  async saveLogs(logs: Record<string, ChallengeLogEntry>): Promise<void> {
-    this.logsByDate = logs;
-    await this.saveLogsToStorage();
+  // Streak and rate aggregates; null where they are not kept natively
+  async getStats(): Promise<ChallengeStats | null> {
+    const native = nativeLog();
+    if (!native) return null;
+    try {
+      return await native.getChallengeStats();
+    } catch (error) {
+      console.warn('Reading challenge stats failed:', error);
+      return null;
+    }
   }
 
   private async syncToCloud(): Promise<void> {
@@ -100,7 +141,8 @@ class ChallengeService {
     }
   }
 
-  private async syncLogsToCloud(): Promise<void> {
+  // Pushes one day when given, otherwise the whole log (bulk imports and merges)
+  private async syncLogsToCloud(entry?: ChallengeLogEntry): Promise<void> {
     try {
       if (!this.cloudSyncService) {
         const CloudSyncService = require('./CloudSyncService').default;
@@ -113,7 +155,11 @@ class ChallengeService {
         return;
       }
       
-      await this.cloudSyncService.syncChallengeLogs(this.logsByDate);
+      if (entry) {
+        await this.cloudSyncService.syncChallengeLog(entry);
+      } else {
+        await this.cloudSyncService.syncChallengeLogs(this.logsByDate);
+      }
     } catch (error) {
       console.warn('Cloud sync failed:', error);
     }
@@ -142,13 +188,25 @@ class ChallengeService {
 
   async markDay(date: Date, status: DayStatus, info?: { actualWakeTime?: Date; solvedMath?: boolean }): Promise<void> {
     const key = this.toDateKey(date);
-    this.logsByDate[key] = {
+    const entry: ChallengeLogEntry = {
       dateKey: key,
       status,
       actualWakeTime: info?.actualWakeTime ? info.actualWakeTime.toISOString() : undefined,
       solvedMath: info?.solvedMath,
     };
-    await this.saveLogsToStorage();
+    this.logsByDate[key] = entry;
+    const native = nativeLog();
+    if (native) {
+      // One row upsert; native folds it into the stats instead of JS rewriting every day
+      try {
+        await native.markChallengeDay(toNativeDay(entry));
+      } catch (error) {
+        console.warn('Native challenge log write failed:', error);
+      }
+    } else {
+      await AsyncStorage.setItem('challengeLogs', JSON.stringify(this.logsByDate));
+    }
+    await this.syncLogsToCloud(entry);
   }
 
   getDayStatus(date: Date): DayStatus | null {
@@ -5,6 +5,7 @@ import {
   updateDoc, 
   onSnapshot, 
   serverTimestamp,
+  deleteField,
   writeBatch,
   collection,
   query,
@@ -18,6 +19,34 @@ import AuthService from './AuthService';
 import AlarmService from './AlarmService';
 import ChallengeService from './ChallengeService';
 import NetInfo from '@react-native-community/netinfo';
+import SyncOutbox, { createOutbox, OutboxEntry, OutboxSink } from './SyncOutbox';
+
+// Date fields went to Firestore as Dates before the outbox; keep them Timestamps, not ISO strings
+const DATE_FIELDS = new Set(['time', 'wakeUpTime', 'startDate']);
+const ISO_DATE = /^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}:\d{2}(\.\d+)?Z$/;
+const reviveDates = (key: string, value: any) =>
+  DATE_FIELDS.has(key) && typeof value === 'string' && ISO_DATE.test(value) ? new Date(value) : value;
+
+// Writes one drained outbox batch as a single update of the user document
+class FirestoreSink implements OutboxSink {
+  constructor(
+    private readonly uid: string,
+    private readonly retry: (operation: () => Promise<void>, operationName: string) => Promise<void>
+  ) {}
+
+  async push(entries: OutboxEntry[]): Promise<void> {
+    const updateData: Record<string, any> = {};
+    for (const { key, value } of entries) {
+      updateData[key] = value === null ? deleteField() : JSON.parse(value, reviveDates);
+    }
+    if (entries.some(entry => entry.key.startsWith('profile.'))) {
+      updateData['profile.updatedAt'] = serverTimestamp();
+    }
+    updateData['syncMetadata.lastSyncAt'] = serverTimestamp();
+    updateData['syncMetadata.version'] = Date.now(); // Simple versioning
+    await this.retry(() => updateDoc(doc(db, 'users', this.uid), updateData), 'syncToCloud updateDoc');
+  }
+}
 
 export interface UserCloudData {
   userId: string;
@@ -52,8 +81,8 @@ class CloudSyncService {
   private alarmService: AlarmService | null = null;
   private challengeService: ChallengeService | null = null;
   private isOnline: boolean = true;
-  private pendingChanges: any[] = [];
-  private readonly MAX_PENDING_CHANGES = 100; // Limit to prevent memory issues
+  // Pending cloud writes, durable and coalesced per Firestore field path
+  private readonly outbox: SyncOutbox = createOutbox();
   private readonly MAX_RETRY_ATTEMPTS = 3;
   private readonly INITIAL_RETRY_DELAY = 1000; // 1 second
   private syncInProgress: boolean = false;
@@ -80,18 +109,6 @@ class CloudSyncService {
     return this.isSyncingFromCloud;
   }
 
-  // Add to pending changes with memory management
-  private addToPendingChanges(change: any): void {
-    // Remove oldest changes if we exceed the limit
-    if (this.pendingChanges.length >= this.MAX_PENDING_CHANGES) {
-      const removeCount = Math.floor(this.MAX_PENDING_CHANGES * 0.2); // Remove 20% of oldest
-      this.pendingChanges.splice(0, removeCount);
-      console.warn(`CloudSync: Removed ${removeCount} oldest pending changes to prevent memory issues`);
-    }
-    
-    this.pendingChanges.push(change);
-  }
-
   // Retry mechanism with exponential backoff
   private async retryWithBackoff<T>(
     operation: () => Promise<T>,
@@ -119,9 +136,9 @@ class CloudSyncService {
       const wasOnline = this.isOnline;
       this.isOnline = state.isConnected ?? false;
       
-      // If we just came online and have pending changes, sync them
-      if (!wasOnline && this.isOnline && this.pendingChanges.length > 0) {
-        this.syncPendingChanges();
+      // If we just came online, push whatever was recorded while offline
+      if (!wasOnline && this.isOnline) {
+        this.flushOutbox();
       }
     });
   }
@@ -388,60 +405,52 @@ class CloudSyncService {
     }
   }
 
-  // Sync local changes to cloud
-  async syncToCloud(changes: Partial<UserCloudData>): Promise<void> {
+  // Sync local changes to cloud: record them in the outbox, then drain it if we can reach Firestore
+  async syncToCloud(changes: Partial<UserCloudData> | Record<string, unknown>): Promise<void> {
     const user = this.authService.getCurrentUser();
     if (!user) return;
 
-    if (!this.isOnline) {
-      // Queue changes for later sync with memory management
-      this.addToPendingChanges({ ...changes, timestamp: Date.now() });
+    try {
+      await this.outbox.record(this.toFieldChanges(changes));
+    } catch (error) {
+      console.error('Failed to record changes for cloud sync:', error);
       return;
     }
+    await this.flushOutbox();
+  }
 
-    try {
-      this.syncInProgress = true;
-      
-      const updateData = {
-        ...changes,
-        'syncMetadata.lastSyncAt': serverTimestamp(),
-        'syncMetadata.version': Date.now() // Simple versioning
-      };
-
-      await this.retryWithBackoff(
-        () => updateDoc(doc(db, 'users', user.uid), updateData),
-        'syncToCloud updateDoc'
-      );
-      await this.updateDeviceInfo();
-      
-      console.log('Data synced to cloud successfully');
-    } catch (error) {
-      console.error('Failed to sync to cloud:', error);
-      // Add to pending changes if sync failed with memory management
-      this.addToPendingChanges({ ...changes, timestamp: Date.now() });
-    } finally {
-      this.syncInProgress = false;
+  // Whole log maps become one entry per day, so a single edited day is all that is resent
+  private toFieldChanges(changes: Record<string, any>): Record<string, unknown> {
+    const fields: Record<string, unknown> = {};
+    for (const [key, value] of Object.entries(changes)) {
+      if (key === 'challengeLogs' && value) {
+        for (const [dateKey, entry] of Object.entries(value)) {
+          fields[`challengeLogs.${dateKey}`] = entry;
+        }
+      } else {
+        fields[key] = value;
+      }
     }
+    return fields;
   }
 
-  // Sync pending changes when coming back online
-  private async syncPendingChanges(): Promise<void> {
-    if (this.pendingChanges.length === 0) return;
+  // Drains the outbox in bounded batches; anything not pushed stays queued for the next attempt
+  async flushOutbox(): Promise<void> {
+    const user = this.authService.getCurrentUser();
+    if (!user || !this.isOnline) return;
 
     try {
-      console.log(`Syncing ${this.pendingChanges.length} pending changes...`);
-      
-      // Merge all pending changes
-      const mergedChanges = this.pendingChanges.reduce((acc, change) => {
-        return { ...acc, ...change };
-      }, {});
-
-      await this.syncToCloud(mergedChanges);
-      this.pendingChanges = [];
-      
-      console.log('Pending changes synced successfully');
+      this.syncInProgress = true;
+      const sink = new FirestoreSink(user.uid, (operation, name) => this.retryWithBackoff(operation, name));
+      const pushed = await this.outbox.drain(sink);
+      if (pushed > 0) {
+        await this.updateDeviceInfo();
+        console.log(`Synced ${pushed} pending change(s) to cloud`);
+      }
     } catch (error) {
-      console.error('Failed to sync pending changes:', error);
+      console.error('Failed to sync to cloud:', error);
+    } finally {
+      this.syncInProgress = false;
     }
   }
 
@@ -549,15 +558,17 @@ class CloudSyncService {
     await this.syncToCloud({ challengeLogs: logs });
   }
 
+  async syncChallengeLog(entry: ChallengeLogEntry): Promise<void> {
+    await this.syncToCloud({ [`challengeLogs.${entry.dateKey}`]: entry });
+  }
+
   async syncOnboardingData(data: OnboardingData): Promise<void> {
     await this.syncToCloud({ onboardingData: data });
   }
 
   async syncUserName(userName: string): Promise<void> {
-    await this.syncToCloud({ 
-      'profile.userName': userName,
-      'profile.updatedAt': serverTimestamp()
-    });
+    // FirestoreSink stamps profile.updatedAt whenever a profile field is pushed
+    await this.syncToCloud({ 'profile.userName': userName });
   }
 
   // Cleanup
@@ -0,0 +1,133 @@
+import NativeAlarmModule, { Spec } from '../specs/NativeAlarmModule';
+
+// One pending entity: key is the Firestore field path, value its latest JSON (null deletes it)
+export interface OutboxEntry {
+  key: string;
+  value: string | null;
+  version: number;
+}
+
+// Where drained batches go: Firestore in the app, InMemorySink in tests
+export interface OutboxSink {
+  push(entries: OutboxEntry[]): Promise<void>;
+}
+
+export interface OutboxStore {
+  record(changes: { key: string; value: string | null }[]): Promise<number>;
+  take(limit: number): Promise<OutboxEntry[]>;
+  ack(entries: { key: string; version: number }[]): Promise<void>;
+}
+
+// Android: sync_outbox in Room, so pending changes survive the process
+export class NativeOutboxStore implements OutboxStore {
+  constructor(private readonly module: Spec) {}
+
+  record(changes: { key: string; value: string | null }[]): Promise<number> {
+    return this.module.outboxRecord(changes);
+  }
+
+  take(limit: number): Promise<OutboxEntry[]> {
+    return this.module.outboxTake(limit);
+  }
+
+  async ack(entries: { key: string; version: number }[]): Promise<void> {
+    await this.module.outboxAck(entries.map(({ key, version }) => ({ key, version })));
+  }
+}
+
+// Same coalescing without durability; used where the native module is absent and in tests
+export class MemoryOutboxStore implements OutboxStore {
+  private entries = new Map<string, OutboxEntry>();
+  private version = 0;
+
+  async record(changes: { key: string; value: string | null }[]): Promise<number> {
+    for (const { key, value } of changes) {
+      // Re-insert so iteration order follows version, like the native ORDER BY version
+      this.entries.delete(key);
+      this.entries.set(key, { key, value, version: ++this.version });
+    }
+    return this.entries.size;
+  }
+
+  async take(limit: number): Promise<OutboxEntry[]> {
+    return Array.from(this.entries.values()).slice(0, limit);
+  }
+
+  async ack(entries: { key: string; version: number }[]): Promise<void> {
+    for (const { key, version } of entries) {
+      if (this.entries.get(key)?.version === version) this.entries.delete(key);
+    }
+  }
+
+  size(): number {
+    return this.entries.size;
+  }
+}
+
+// Stands in for Firestore: applies pushed field paths to a plain document
+export class InMemorySink implements OutboxSink {
+  readonly document: Record<string, any> = {};
+  readonly batches: OutboxEntry[][] = [];
+  failNext = 0;
+
+  async push(entries: OutboxEntry[]): Promise<void> {
+    if (this.failNext > 0) {
+      this.failNext -= 1;
+      throw new Error('sink unavailable');
+    }
+    this.batches.push(entries);
+    for (const { key, value } of entries) {
+      if (value === null) {
+        delete this.document[key];
+      } else {
+        this.document[key] = JSON.parse(value);
+      }
+    }
+  }
+}
+
+export const DEFAULT_BATCH_SIZE = 50;
+
+class SyncOutbox {
+  private draining: Promise<number> | null = null;
+
+  constructor(private readonly store: OutboxStore) {}
+
+  // Records the latest value of each changed entity; repeated edits replace earlier ones
+  async record(changes: Record<string, unknown>): Promise<number> {
+    const rows = Object.entries(changes).map(([key, value]) => ({
+      key,
+      value: value === undefined || value === null ? null : JSON.stringify(value),
+    }));
+    return rows.length > 0 ? this.store.record(rows) : 0;
+  }
+
+  // Pushes pending entities in batches of batchSize until empty; stops at the first failed push,
+  // leaving the rest queued. Concurrent calls share one drain. Resolves how many were pushed.
+  drain(sink: OutboxSink, batchSize: number = DEFAULT_BATCH_SIZE): Promise<number> {
+    if (!this.draining) {
+      this.draining = this.drainOnce(sink, batchSize).finally(() => {
+        this.draining = null;
+      });
+    }
+    return this.draining;
+  }
+
+  private async drainOnce(sink: OutboxSink, batchSize: number): Promise<number> {
+    let pushed = 0;
+    for (;;) {
+      const batch = await this.store.take(batchSize);
+      if (batch.length === 0) return pushed;
+      await sink.push(batch);
+      await this.store.ack(batch);
+      pushed += batch.length;
+      if (batch.length < batchSize) return pushed;
+    }
+  }
+}
+
+export const createOutbox = (): SyncOutbox => {
+  return new SyncOutbox(NativeAlarmModule ? new NativeOutboxStore(NativeAlarmModule) : new MemoryOutboxStore());
+};
+
+export default SyncOutbox;
@@ -0,0 +1,104 @@
+import { NativeModules } from 'react-native';
+
+// Typed view of the com.nooze.AlarmModule bridge module. Read-only flags are blocking
+// synchronous methods and answer from memory or a single system query; everything that
+// touches AlarmManager, Room or the disk stays async and runs on the module's serial executor.
+
+export type BatchResult = {
+  alarmId: number | null;
+  success: boolean;
+  error?: string;
+};
+
+export type NextAlarm = {
+  alarmId: number;
+  title: string;
+  triggerAt: number;
+};
+
+export type NativeChallengeDay = {
+  dateKey: string;
+  status: string;
+  actualWakeAt?: number | null;
+  solvedMath?: boolean | null;
+};
+
+export type NativeChallengeStats = {
+  completedDays: number;
+  missedDays: number;
+  currentStreak: number;
+  bestStreak: number;
+  completionRate: number;
+  averageWakeDelayMinutes: number | null;
+};
+
+export type NativeOutboxChange = {
+  key: string;
+  value: string | null;
+};
+
+export type NativeOutboxEntry = {
+  key: string;
+  value: string | null;
+  version: number;
+};
+
+export interface Spec {
+  // Synchronous reads
+  canScheduleExactAlarms(): boolean;
+  areNotificationsEnabled(): boolean;
+  checkDisplayOverAppsPermission(): boolean;
+  isAlarmStillActive(): boolean;
+
+  // Permissions and settings screens
+  openExactAlarmSettings(): Promise<boolean>;
+  openAppNotificationSettings(): Promise<boolean>;
+  openChannelNotificationSettings(channelId: string): Promise<boolean>;
+  requestIgnoreBatteryOptimizations(): Promise<boolean>;
+  createAlarmChannel(): Promise<boolean>;
+  postTestNotification(): Promise<boolean>;
+
+  // Ring state
+  checkIfAlarmLaunch(): Promise<boolean>;
+  stopAlarmSound(): Promise<boolean>;
+  clearAlarmActiveFlag(): Promise<boolean>;
+  consumeCompletionsSince(cursor: number): Promise<{
+    cursor: number;
+    events: Array<{ id: number; completedAt: number; utcOffsetMinutes: number }>;
+  }>;
+
+  // Scheduling
+  scheduleAlarm(alarmData: Object): Promise<boolean>;
+  scheduleAlarms(alarmsData: Array<Object>): Promise<Array<BatchResult>>;
+  cancelAlarm(alarmId: number): Promise<boolean>;
+  cancelAlarms(alarmIds: Array<number>): Promise<Array<BatchResult>>;
+  syncAlarms(alarmsData: Array<Object>): Promise<{ inserted: number; updated: number; deleted: number }>;
+  getNextAlarms(limit: number): Promise<Array<NextAlarm>>;
+  scheduleOneOffTestAlarm(alarmData: Object): Promise<boolean>;
+  clearAllAlarms(): Promise<boolean>;
+  saveAlarmsForBoot(alarmsJson: string): Promise<boolean>;
+
+  // Challenges
+  setChallengeDifficulty(difficulty: number): Promise<boolean>;
+  markChallengeDay(day: NativeChallengeDay): Promise<NativeChallengeStats>;
+  importChallengeLog(days: Array<NativeChallengeDay>): Promise<NativeChallengeStats>;
+  getChallengeLog(fromKey: string, toKey: string): Promise<Array<Object>>;
+  getChallengeStats(): Promise<NativeChallengeStats>;
+
+  // Cloud sync outbox
+  outboxRecord(changes: Array<NativeOutboxChange>): Promise<number>;
+  outboxTake(limit: number): Promise<Array<NativeOutboxEntry>>;
+  outboxAck(pushed: Array<{ key: string; version: number }>): Promise<number>;
+
+  // Diagnostics
+  testConnection(): Promise<string>;
+  getExecutorStats(): Promise<Object>;
+  getLatencyStats(): Promise<Object>;
+
+  // NativeEventEmitter
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+// Undefined where the module is not built in (iOS); callers fall back to their defaults
+export default NativeModules.AlarmModule as Spec | undefined;
@@ -32,6 +32,16 @@ export interface ChallengeLogEntry {
   solvedMath?: boolean;
 }
 
+// Aggregates kept natively alongside the challenge log
+export interface ChallengeStats {
+  completedDays: number;
+  missedDays: number;
+  currentStreak: number;
+  bestStreak: number;
+  completionRate: number; // 0..1 over completed + missed days
+  averageWakeDelayMinutes: number | null;
+}
+
 export type ScreenType = 
   | 'home' 
   | 'question' 